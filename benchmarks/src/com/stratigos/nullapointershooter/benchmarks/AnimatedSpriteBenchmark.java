@@ -0,0 +1,67 @@
+package com.stratigos.nullapointershooter.benchmarks;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.stratigos.nullapointershooter.AnimatedSprite;
+import com.stratigos.nullapointershooter.GameClock;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the per-step calls made on every ship.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnimatedSpriteBenchmark
+{
+    /**
+     * Sprite being measured.
+     */
+    private AnimatedSprite sprite;
+
+    /**
+     * Create the Sprite, moving right from the middle of the screen.
+     */
+    @Setup
+    public void setUp()
+    {
+        sprite = new AnimatedSprite(Fixtures.SPACESHIP);
+        sprite.setPosition(400, 0);
+        sprite.moveRight();
+    }
+
+    /**
+     * Read the Sprite's bounding box.
+     */
+    @Benchmark
+    public Rectangle getBoundingBox()
+    {
+        return sprite.getBoundingBox();
+    }
+
+    /**
+     * Move the Sprite by one step.
+     */
+    @Benchmark
+    public float move()
+    {
+        // Bounce between the screen edges, so the clamping branches are exercised too.
+        sprite.move(GameClock.TIME_STEP);
+        sprite.changeDirection();
+
+        return sprite.getX();
+    }
+}
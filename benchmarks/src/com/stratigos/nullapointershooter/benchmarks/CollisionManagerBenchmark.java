@@ -0,0 +1,139 @@
+package com.stratigos.nullapointershooter.benchmarks;
+
+import com.badlogic.gdx.utils.Array;
+import com.stratigos.nullapointershooter.AnimatedSprite;
+import com.stratigos.nullapointershooter.CollisionManager;
+import com.stratigos.nullapointershooter.ProjectileStore;
+import com.stratigos.nullapointershooter.ShooterGame;
+import com.stratigos.nullapointershooter.ShotManager;
+import com.stratigos.nullapointershooter.SpriteSheet;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a collision pass at varying numbers of ships and shots. Ships are spread over the screen, so some shots
+ *  hit; hit ships are revived and consumed shots replaced after each pass, so every pass sees the same load.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionManagerBenchmark
+{
+    /**
+     * Number of ships on each side.
+     */
+    @Param({ "1", "10", "100" })
+    public int targetCount;
+
+    /**
+     * Number of live shots of each kind.
+     */
+    @Param({ "10", "1000", "10000" })
+    public int shotCount;
+
+    /**
+     * Ships which alien shots can hit.
+     */
+    private final Array<AnimatedSprite> players = new Array<AnimatedSprite>();
+
+    /**
+     * Ships which player shots can hit.
+     */
+    private final Array<AnimatedSprite> enemies = new Array<AnimatedSprite>();
+
+    /**
+     * Owner of the shots tested against the ships.
+     */
+    private ShotManager shotManager;
+
+    /**
+     * Collision detection being measured.
+     */
+    private CollisionManager collisionManager;
+
+    /**
+     * Scatters ships and shots, seeded so every run measures the same positions.
+     */
+    private final Random random = new Random(42);
+
+    /**
+     * Create the ships and the shots.
+     */
+    @Setup
+    public void setUp()
+    {
+        Fixtures.installStandIns();
+        shotManager = new ShotManager(Fixtures.SHOT, Fixtures.ALIEN_SHOT);
+
+        for (int i = 0; i < targetCount; i++) {
+            players.add(createShip(Fixtures.SPACESHIP));
+            enemies.add(createShip(Fixtures.ALIEN));
+        }
+
+        collisionManager = new CollisionManager(players, enemies, shotManager);
+        reset();
+    }
+
+    /**
+     * Test every shot against the ships once.
+     */
+    @Benchmark
+    public int handleCollisions()
+    {
+        collisionManager.handleCollisions();
+        int remaining = shotManager.getPlayerShots().size() + shotManager.getEnemyShots().size();
+        reset();
+
+        return remaining;
+    }
+
+    /**
+     * Revive every ship and top both shot stores back up to shotCount.
+     */
+    private void reset()
+    {
+        for (int i = 0; i < targetCount; i++) {
+            players.get(i).setDead(false);
+            enemies.get(i).setDead(false);
+        }
+
+        topUp(shotManager.getPlayerShots());
+        topUp(shotManager.getEnemyShots());
+    }
+
+    /**
+     * Fill a shot store up to shotCount, scattering still shots over the screen.
+     */
+    private void topUp(ProjectileStore shots)
+    {
+        while (shots.size() < shotCount) {
+            shots.add(random.nextInt(ShooterGame.SCREEN_WIDTH), random.nextInt(ShooterGame.SCREEN_HEIGHT), 0, 0);
+        }
+    }
+
+    /**
+     * Create a ship at a random position on the screen.
+     */
+    private AnimatedSprite createShip(SpriteSheet sheet)
+    {
+        AnimatedSprite ship = new AnimatedSprite(sheet);
+        ship.setPosition(random.nextInt(ShooterGame.SCREEN_WIDTH), random.nextInt(ShooterGame.SCREEN_HEIGHT));
+
+        return ship;
+    }
+}
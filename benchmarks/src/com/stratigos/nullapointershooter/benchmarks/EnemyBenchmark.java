@@ -0,0 +1,71 @@
+package com.stratigos.nullapointershooter.benchmarks;
+
+import com.stratigos.nullapointershooter.AnimatedSpritePool;
+import com.stratigos.nullapointershooter.Enemy;
+import com.stratigos.nullapointershooter.GameClock;
+import com.stratigos.nullapointershooter.ShotManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one alien's AI and movement per step.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnemyBenchmark
+{
+    /**
+     * Alien shots are discarded once there are this many, so they don't pile up over the run.
+     */
+    private static final int MAX_SHOTS = 1000;
+
+    /**
+     * Receives the alien's shots.
+     */
+    private ShotManager shotManager;
+
+    /**
+     * Alien being measured.
+     */
+    private Enemy enemy;
+
+    /**
+     * Create the alien.
+     */
+    @Setup
+    public void setUp()
+    {
+        Fixtures.installStandIns();
+        shotManager = new ShotManager(Fixtures.SHOT, Fixtures.ALIEN_SHOT);
+        enemy       = new Enemy(new AnimatedSpritePool(Fixtures.ALIEN, 1), shotManager);
+    }
+
+    /**
+     * Run one step of the alien's AI and movement.
+     */
+    @Benchmark
+    public Enemy update()
+    {
+        enemy.update(GameClock.TIME_STEP);
+
+        if (shotManager.getEnemyShots().size() > MAX_SHOTS) {
+            shotManager.getEnemyShots().clear();
+        }
+
+        return enemy;
+    }
+}
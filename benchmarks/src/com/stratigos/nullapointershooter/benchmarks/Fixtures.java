@@ -0,0 +1,38 @@
+package com.stratigos.nullapointershooter.benchmarks;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessFiles;
+import com.badlogic.gdx.backends.headless.mock.audio.MockAudio;
+import com.stratigos.nullapointershooter.SpriteSheet;
+
+/**
+ * Shared setup for benchmarks. Game objects are built from SpriteSheets which only carry frame dimensions, and the
+ *  headless backend's mocks stand in for Gdx.files and Gdx.audio, so no display or audio device is needed.
+ */
+final class Fixtures
+{
+    /**
+     * Frame dimensions of the Sprite maps packed into the regions of android/assets/sprites.atlas.
+     */
+    static final SpriteSheet SPACESHIP  = new SpriteSheet(120, 120);
+    static final SpriteSheet ALIEN      = new SpriteSheet(120, 120);
+    static final SpriteSheet SHOT       = new SpriteSheet(17, 6);
+    static final SpriteSheet ALIEN_SHOT = new SpriteSheet(18, 11);
+
+    private Fixtures()
+    {
+    }
+
+    /**
+     * Install stand-ins for the parts of Gdx the simulation may touch, e.g. to read files or play Sounds.
+     */
+    static void installStandIns()
+    {
+        if (Gdx.files == null) {
+            Gdx.files = new HeadlessFiles();
+        }
+        if (Gdx.audio == null) {
+            Gdx.audio = new MockAudio();
+        }
+    }
+}
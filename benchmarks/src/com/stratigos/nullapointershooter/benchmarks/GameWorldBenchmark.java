@@ -0,0 +1,57 @@
+package com.stratigos.nullapointershooter.benchmarks;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.stratigos.nullapointershooter.GameClock;
+import com.stratigos.nullapointershooter.GameWorld;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of a whole simulation step, with the player following the first alien and firing.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameWorldBenchmark
+{
+    /**
+     * Simulation being measured.
+     */
+    private GameWorld world;
+
+    /**
+     * Create the world with the default waves.
+     */
+    @Setup
+    public void setUp()
+    {
+        Fixtures.installStandIns();
+        world = new GameWorld(Fixtures.SPACESHIP, Fixtures.ALIEN, Fixtures.SHOT, Fixtures.ALIEN_SHOT);
+    }
+
+    /**
+     * Run one step of the world, with the player aiming at the first alien.
+     */
+    @Benchmark
+    public GameWorld update()
+    {
+        Rectangle enemyBox = world.getEnemyWaves().getEnemies().first().getBoundingBox();
+        world.setInput(true, enemyBox.x + (enemyBox.width / 2));
+        world.update(GameClock.TIME_STEP);
+
+        return world;
+    }
+}
@@ -0,0 +1,89 @@
+package com.stratigos.nullapointershooter.benchmarks;
+
+import com.stratigos.nullapointershooter.GameClock;
+import com.stratigos.nullapointershooter.ProjectileStore;
+import com.stratigos.nullapointershooter.ShooterGame;
+import com.stratigos.nullapointershooter.ShotManager;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of moving shots, at varying numbers of live shots. Hit-testing is measured by CollisionManagerBenchmark.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ShotManagerBenchmark
+{
+    /**
+     * Number of live shots of each kind.
+     */
+    @Param({ "10", "1000", "10000" })
+    public int shotCount;
+
+    /**
+     * Shots being measured.
+     */
+    private ShotManager shotManager;
+
+    /**
+     * Scatters new shots, seeded so every run measures the same positions.
+     */
+    private final Random random = new Random(42);
+
+    /**
+     * Create the shots.
+     */
+    @Setup
+    public void setUp()
+    {
+        Fixtures.installStandIns();
+        shotManager = new ShotManager(Fixtures.SHOT, Fixtures.ALIEN_SHOT);
+        topUp();
+    }
+
+    /**
+     * Move every shot by one step.
+     */
+    @Benchmark
+    public int update()
+    {
+        shotManager.update(GameClock.TIME_STEP);
+
+        // Replace shots which left the screen, so every invocation moves the same number of shots.
+        topUp();
+
+        return shotManager.getPlayerShots().size();
+    }
+
+    /**
+     * Fill both stores up to shotCount, scattering shots over the screen.
+     */
+    private void topUp()
+    {
+        ProjectileStore shots      = shotManager.getPlayerShots();
+        ProjectileStore enemyShots = shotManager.getEnemyShots();
+
+        while (shots.size() < shotCount) {
+            shots.add(random.nextInt(ShooterGame.SCREEN_WIDTH), random.nextInt(ShooterGame.SCREEN_HEIGHT), 0, 300);
+        }
+        while (enemyShots.size() < shotCount) {
+            enemyShots.add(random.nextInt(ShooterGame.SCREEN_WIDTH), random.nextInt(ShooterGame.SCREEN_HEIGHT), 0, -300);
+        }
+    }
+}
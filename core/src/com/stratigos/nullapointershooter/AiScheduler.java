@@ -0,0 +1,161 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Decides which aliens make their AI decisions (turn around, fire) at each step. Each alien decides at a fixed rate in
+ *  game time, faster when it is near the player's ship, where its decisions matter, than when it is far away. At most
+ *  a fixed number of aliens decide per step; aliens left over wait for the next step, and are first in line there, so
+ *  large waves spread their decisions over several steps instead of spiking one.
+ *
+ * The budget is a number of decisions rather than a time, so the aliens' behaviour depends on nothing but the world's
+ *  state, and recordings replay the same on any device. Scheduling runs on the calling thread, before aliens are moved.
+ */
+public class AiScheduler
+{
+    /**
+     * Tunables of the decision rates and budget.
+     */
+    private final WaveConfiguration config;
+
+    /**
+     * Index of the alien the next step starts scanning from.
+     */
+    private int cursor = 0;
+
+    /**
+     * Number of decisions made, and of decisions deferred to a later step for lack of budget, since the scheduler was
+     *  created. An alien deferred over several steps counts once per step.
+     */
+    private long decisions = 0;
+    private long deferred  = 0;
+
+    /**
+     * Number of decisions made, and deferred, during the latest step.
+     */
+    private int stepDecisions = 0;
+    private int stepDeferred  = 0;
+
+    /**
+     * @param config Tunables of the decision rates and budget.
+     */
+    public AiScheduler(WaveConfiguration config)
+    {
+        this.config = config;
+    }
+
+    /**
+     * Tell every live alien due for a decision, up to the budget, to make it during the coming step.
+     * @param enemies Aliens of the current wave.
+     * @param delta Seconds passed in the coming simulation step.
+     * @param focusX X position of the player's ship.
+     */
+    public void schedule(Array<Enemy> enemies, float delta, float focusX)
+    {
+        float focusInterval    = 1f / config.decisionRate;
+        float offFocusInterval = 1f / config.offFocusDecisionRate;
+        int count              = enemies.size;
+        int firstDeferred      = -1;
+
+        stepDecisions = 0;
+        stepDeferred  = 0;
+        if (cursor >= count) {
+            cursor = 0;
+        }
+
+        for (int n = 0; n < count; n++) {
+            int i = cursor + n;
+            if (i >= count) {
+                i -= count;
+            }
+
+            Enemy enemy = enemies.get(i);
+            if (!enemy.isCollidable()) {
+                continue;
+            }
+
+            float interval = Math.abs(enemy.getX() - focusX) <= config.focusDistance
+                ? focusInterval : offFocusInterval;
+            if (enemy.getTimeSinceDecision() + delta < interval) {
+                continue;
+            }
+
+            if (stepDecisions < config.decisionsPerStep) {
+                enemy.scheduleDecision();
+                stepDecisions++;
+            } else {
+                if (firstDeferred < 0) {
+                    firstDeferred = i;
+                }
+                stepDeferred++;
+            }
+        }
+
+        // Start the next scan at the first alien left waiting, so it isn't passed over again.
+        if (firstDeferred >= 0) {
+            cursor = firstDeferred;
+        }
+
+        decisions += stepDecisions;
+        deferred  += stepDeferred;
+    }
+
+    /**
+     * @return number of decisions made since the scheduler was created.
+     */
+    public long getDecisions()
+    {
+        return decisions;
+    }
+
+    /**
+     * @return number of decisions deferred to a later step since the scheduler was created.
+     */
+    public long getDeferred()
+    {
+        return deferred;
+    }
+
+    /**
+     * @return number of decisions made during the latest step.
+     */
+    public int getStepDecisions()
+    {
+        return stepDecisions;
+    }
+
+    /**
+     * @return number of decisions deferred during the latest step.
+     */
+    public int getStepDeferred()
+    {
+        return stepDeferred;
+    }
+
+    /**
+     * Number of bytes written by writeState().
+     */
+    public static final int STATE_SIZE = 4 + 2 * 8;
+
+    /**
+     * Write the scan position and counters, for a snapshot of the world.
+     * @param buffer Destination, with at least STATE_SIZE bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        buffer.putInt(cursor).putLong(decisions).putLong(deferred);
+    }
+
+    /**
+     * Restore the state written by writeState().
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        cursor    = buffer.getInt();
+        decisions = buffer.getLong();
+        deferred  = buffer.getLong();
+    }
+}
@@ -1,44 +1,49 @@
 package com.stratigos.nullapointershooter;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Animation;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.badlogic.gdx.utils.Pool;
+
+import java.nio.ByteBuffer;
 
 /**
- * Class to handle drawing / animating sprites.
+ * Class to handle drawing / animating sprites. Instances are Poolable, so they can be recycled via AnimatedSpritePool
+ *  instead of being reallocated each time a shot is fired or a ship respawns.
  * Created by stratigos on 7/20/15 (via Pluralsight Android Game App Dev course).
  */
-public class AnimatedSprite
+public class AnimatedSprite implements Pool.Poolable, Collidable
 {
     /**
-     * Rate of movement, in pixels, the Sprite moves per game tick.
+     * Speed of the Sprite when moving left or right, in pixels per second.
      */
     public static final int SHIP_SPEED = 300;
 
     /**
-     * Stored value to represent number of horizontal animation tiles in a Sprite map.
+     * Frames and Animation shared by every Sprite drawn from the same Sprite map.
+     */
+    private final SpriteSheet sheet;
+
+    /**
+     * Pixel position of the left edge of the Sprite.
      */
-    private static final int FRAMES_COL = 2;
+    private float x;
 
     /**
-     * Stored value to represent number of vertical animation tiles in a Sprite map.
+     * Pixel position of the bottom edge of the Sprite.
      */
-    private static final int FRAMES_ROW = 2;
+    private float y;
 
     /**
-     * Represents the current Sprite being animated.
+     * Position of the left edge of the Sprite before the last simulation step. Used to interpolate drawing.
      */
-    private Sprite sprite;
+    private float previousX;
 
     /**
-     * Helper for animation, deduces frame, time elapsed, fps, etc.
+     * Position of the bottom edge of the Sprite before the last simulation step. Used to interpolate drawing.
      */
-    private Animation animation;
+    private float previousY;
 
     /**
      * Determines status of Sprite.
@@ -46,118 +51,120 @@ public class AnimatedSprite
     private boolean isDead = false;
 
     /**
-     * Array of frames.
+     * Holds time passed since last image update. Helps track frame to be displayed.
      */
-    private TextureRegion[] frames;
+    private float stateTime;
 
     /**
-     * Current frame.
+     * A variable to hold the value of the position of an object. Initializes at 0x,0y.
      */
-    private TextureRegion currentFrame;
+    private final Vector2 velocity = new Vector2();
 
     /**
-     * Holds time passed since last image update. Helps track frame to be displayed.
+     * Reusable result of getBoundingBox(), so collision checks don't allocate a Rectangle on each call.
      */
-    private float stateTime;
+    private final Rectangle boundingBox = new Rectangle();
 
     /**
-     * A variable to hold the value of the position of an object. Initializes at 0x,0y.
+     * @param region Atlas region of the image/map to be animated. Its frames are looked up in the SpriteSheetCache.
      */
-    private Vector2 velocity = new Vector2();
+    public AnimatedSprite(TextureRegion region)
+    {
+        this(SpriteSheetCache.get(region));
+    }
 
     /**
-     * @param sprite Image/map to be animated.
+     * @param sheet Shared frames to be animated.
      */
-    public AnimatedSprite(Sprite sprite)
+    public AnimatedSprite(SpriteSheet sheet)
     {
-        // Create resources for Sprite mapping.
-        this.sprite            = sprite;
-        Texture texture        = sprite.getTexture();
-        TextureRegion[][] temp = TextureRegion.split(
-            texture,
-            (int) getSpriteWidth(),
-            texture.getHeight() / FRAMES_ROW
-        );
-        frames = new TextureRegion[FRAMES_COL * FRAMES_ROW];
-
-        // Create "table" to store animated frames.
-        int index = 0;
-        for (int i = 0; i < FRAMES_ROW; i++) {
-           for (int j = 0; j < FRAMES_COL; j++) {
-               frames[index++] = temp[i][j];
-           }
-        }
-
-        animation = new Animation(0.1f, frames);
-        stateTime = 0f;
+        this.sheet = sheet;
+        stateTime  = 0f;
     }
 
     /**
-     * Draw current frame at Sprite's X and Y coordinates.
+     * Draw current frame between the Sprite's previous and current X and Y coordinates.
      * @param spriteBatch SpriteBatch
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
      */
-    public void draw(SpriteBatch spriteBatch)
+    public void draw(SpriteBatch spriteBatch, float alpha)
     {
-        stateTime   += Gdx.graphics.getDeltaTime(); // Get time passed since last draw() call.
-        currentFrame = animation.getKeyFrame(stateTime, true);
+        float drawX = previousX + (x - previousX) * alpha;
+        float drawY = previousY + (y - previousY) * alpha;
 
-        spriteBatch.draw(currentFrame, sprite.getX(), sprite.getY());
+        spriteBatch.draw(sheet.getKeyFrame(stateTime), drawX, drawY);
     }
 
     /**
-     * Handles position of the current frame on the screen.
+     * Handles position of the current frame on the screen. The Sprite jumps there, instead of being interpolated.
      * @param x float Center of the Sprite
      * @param y float Bottom of Sprite
      */
     public void setPosition(float x, float y)
     {
-        sprite.setPosition((x - getSpriteCenterOffset()), y);
+        this.x    = x - getSpriteCenterOffset();
+        this.y    = y;
+        previousX = this.x;
+        previousY = this.y;
     }
 
     /**
-     * Update the velocity of this Sprite.
+     * Update the velocity of this Sprite. The given vector is copied, not stored.
      * @param velocity Vector2 instance used to manipulate Sprite's velocity on screen.
      */
     public void setVelocity(Vector2 velocity)
     {
-        this.velocity = velocity;
+        this.velocity.set(velocity);
+    }
+
+    /**
+     * Update the velocity of this Sprite without allocating a new Vector2.
+     * @param x float Velocity along the X axis, in pixels per second.
+     * @param y float Velocity along the Y axis, in pixels per second.
+     */
+    public void setVelocity(float x, float y)
+    {
+        velocity.set(x, y);
     }
 
     /**
-     * Controls the right-directional velocity of the Sprite. Moves at 300px / frame,
+     * Controls the right-directional velocity of the Sprite. Moves at SHIP_SPEED pixels per second.
      */
     public void moveRight()
     {
-        velocity = new Vector2(SHIP_SPEED, 0);
+        velocity.set(SHIP_SPEED, 0);
     }
 
     /**
-     * Controls the left-directional velocity of the Sprite. Moves at 300px / frame,
+     * Controls the left-directional velocity of the Sprite. Moves at SHIP_SPEED pixels per second.
      */
     public void moveLeft()
     {
-        velocity = new Vector2(-SHIP_SPEED, 0);
+        velocity.set(-SHIP_SPEED, 0);
     }
 
     /**
-     * Moves the Sprite to the left or right, or up, based on current velocity. Prevents Sprite from moving off the
-     *  screen for X axis movement.
+     * Moves the Sprite to the left or right, or up, based on current velocity, and advances its animation. Prevents
+     *  Sprite from moving off the screen for X axis movement. Positions are kept with sub-pixel precision, so slow
+     *  movement over short steps still adds up.
+     * @param delta Seconds passed in this simulation step.
      */
-    public void move()
+    public void move(float delta)
     {
-        // Determine how many pixels the Sprite should move based on time passed.
-        int xMovement = (int) (velocity.x * Gdx.graphics.getDeltaTime());
-        int yMovement = (int) (velocity.y * Gdx.graphics.getDeltaTime());
+        previousX  = x;
+        previousY  = y;
+        stateTime += delta;
 
-        // Set new position of Sprite based on changed velocity.
-        sprite.setPosition(sprite.getX() + xMovement, sprite.getY() + yMovement);
+        // Set new position of Sprite based on velocity and time passed.
+        x += velocity.x * delta;
+        y += velocity.y * delta;
 
         // Prevent Sprite from moving off the screen along the X axis.
-        if (sprite.getX() < 0) {
-            sprite.setX(0);
+        if (x < 0) {
+            x = 0;
         }
-        if ((sprite.getX() + getSpriteWidth()) > ShooterGame.SCREEN_WIDTH) {
-            sprite.setX(ShooterGame.SCREEN_WIDTH - getSpriteWidth());
+        if ((x + getSpriteWidth()) > ShooterGame.SCREEN_WIDTH) {
+            x = ShooterGame.SCREEN_WIDTH - getSpriteWidth();
         }
     }
 
@@ -173,18 +180,18 @@ public class AnimatedSprite
      * Get the X position of the center of the Sprite.
      * @return Pixel x-position of center of the Sprite.
      */
-    public int getX()
+    public float getX()
     {
-        return (int) (sprite.getX() + getSpriteCenterOffset());
+        return x + getSpriteCenterOffset();
     }
 
     /**
      * Get the Y position of the Sprite.
      * @return Pixel y-position of the Sprite.
      */
-    public int getY()
+    public float getY()
     {
-        return (int) (sprite.getY());
+        return y;
     }
 
     /**
@@ -193,7 +200,7 @@ public class AnimatedSprite
      */
     public int getWidth()
     {
-        return (int) (getSpriteWidth());
+        return sheet.getFrameWidth();
     }
 
     /**
@@ -202,16 +209,18 @@ public class AnimatedSprite
      */
     public int getHeight()
     {
-        return (int) (sprite.getHeight() / FRAMES_ROW);
+        return sheet.getFrameHeight();
     }
 
     /**
-     * Return borders of the Sprite's current frame.
+     * Return borders of the Sprite's current frame. The same Rectangle is reused by every call, so callers must copy
+     *  it if they need to keep it after the Sprite moves.
      * @return a Rectangle defining borders of Sprite.
      */
+    @Override
     public Rectangle getBoundingBox()
     {
-        return new Rectangle(sprite.getX(), sprite.getY(), getWidth(), getHeight());
+        return boundingBox.set(x, y, getWidth(), getHeight());
     }
 
     /**
@@ -232,6 +241,75 @@ public class AnimatedSprite
         this.isDead = isDead;
     }
 
+    /**
+     * Only living Sprites can be shot.
+     * @return TRUE if Sprite is alive.
+     */
+    @Override
+    public boolean isCollidable()
+    {
+        return !isDead;
+    }
+
+    /**
+     * @return shared frames the Sprite is animated with.
+     */
+    @Override
+    public SpriteSheet getSheet()
+    {
+        return sheet;
+    }
+
+    /**
+     * Die when hit.
+     */
+    @Override
+    public void hit()
+    {
+        setDead(true);
+    }
+
+    /**
+     * Return the Sprite to its initial state, so it can be handed out again by a Pool. Called by Pool.free().
+     */
+    @Override
+    public void reset()
+    {
+        stateTime = 0f;
+        isDead    = false;
+        velocity.set(0, 0);
+    }
+
+    /**
+     * Number of bytes written by writeState().
+     */
+    public static final int STATE_SIZE = 7 * 4 + 1;
+
+    /**
+     * Write the Sprite's position, velocity, animation time and state, for a snapshot of the world.
+     * @param buffer Destination, with at least STATE_SIZE bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        buffer.putFloat(x).putFloat(y).putFloat(previousX).putFloat(previousY).putFloat(stateTime)
+            .putFloat(velocity.x).putFloat(velocity.y).put((byte) (isDead ? 1 : 0));
+    }
+
+    /**
+     * Restore the state written by writeState().
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        x         = buffer.getFloat();
+        y         = buffer.getFloat();
+        previousX = buffer.getFloat();
+        previousY = buffer.getFloat();
+        stateTime = buffer.getFloat();
+        velocity.set(buffer.getFloat(), buffer.getFloat());
+        isDead    = buffer.get() != 0;
+    }
+
     /**
      * Find the distance between the edge of the Sprite and it's center.
      * @return Distance in pixels from Sprite center pixel.
@@ -247,6 +325,6 @@ public class AnimatedSprite
      */
     private float getSpriteWidth()
     {
-        return sprite.getWidth() / FRAMES_COL;
+        return sheet.getFrameWidth();
     }
 }
@@ -0,0 +1,40 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.utils.Pool;
+
+/**
+ * Pool of AnimatedSprites which all share the same SpriteSheet. Recycles shots and ships instead of allocating a new
+ *  AnimatedSprite each time one is fired or spawned, so steady-state gameplay does not trigger the GC.
+ */
+public class AnimatedSpritePool extends Pool<AnimatedSprite>
+{
+    /**
+     * Frames used by every AnimatedSprite created by this Pool.
+     */
+    private final SpriteSheet sheet;
+
+    /**
+     * @param sheet Shared frames to animate.
+     * @param initialCapacity Number of free AnimatedSprites to create up front.
+     */
+    public AnimatedSpritePool(SpriteSheet sheet, int initialCapacity)
+    {
+        super(initialCapacity);
+        this.sheet = sheet;
+
+        // Warm the Pool, so the first burst of shots doesn't allocate mid-game.
+        for (int i = 0; i < initialCapacity; i++) {
+            free(newObject());
+        }
+    }
+
+    /**
+     * Create a new AnimatedSprite when the Pool has no free instances left.
+     * @return a new AnimatedSprite backed by this Pool's SpriteSheet.
+     */
+    @Override
+    protected AnimatedSprite newObject()
+    {
+        return new AnimatedSprite(sheet);
+    }
+}
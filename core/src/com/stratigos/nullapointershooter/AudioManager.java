@@ -0,0 +1,103 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Sits between the game and its Sounds. Each Sound gets a SoundChannel, which caps its voices and rate, and which the
+ *  game requests plays from; update() flushes every channel once per frame. This keeps many ships firing at once from
+ *  saturating the backend's streams (SoundPool on Android) and mixer.
+ */
+public class AudioManager
+{
+    /**
+     * Every channel created so far.
+     */
+    private final Array<SoundChannel> channels = new Array<SoundChannel>();
+
+    /**
+     * Seconds since the AudioManager was created, advanced by update().
+     */
+    private float time = 0f;
+
+    /**
+     * Create a channel to play a Sound through.
+     * @param sound Sound played by the channel.
+     * @param maxVoices Maximum number of plays of the Sound heard at once.
+     * @param volume Volume of each play, from 0 to 1.
+     * @param minInterval Minimum time between two plays, in seconds.
+     * @param duration Length of the Sound, in seconds.
+     * @return the new SoundChannel.
+     */
+    public SoundChannel createChannel(Sound sound, int maxVoices, float volume, float minInterval, float duration)
+    {
+        SoundChannel channel = new SoundChannel(sound, maxVoices, volume, minInterval, duration);
+        channels.add(channel);
+
+        return channel;
+    }
+
+    /**
+     * Play every Sound requested since the last update. Call once per frame, after the simulation ran.
+     * @param frameTime Seconds since the previous frame.
+     */
+    public void update(float frameTime)
+    {
+        time += frameTime;
+        for (int i = 0; i < channels.size; i++) {
+            channels.get(i).flush(time);
+        }
+    }
+
+    /**
+     * @return number of plays started by every channel.
+     */
+    public int getPlayed()
+    {
+        int total = 0;
+        for (int i = 0; i < channels.size; i++) {
+            total += channels.get(i).getPlayed();
+        }
+
+        return total;
+    }
+
+    /**
+     * @return number of requests merged into another request of the same frame, in every channel.
+     */
+    public int getCoalesced()
+    {
+        int total = 0;
+        for (int i = 0; i < channels.size; i++) {
+            total += channels.get(i).getCoalesced();
+        }
+
+        return total;
+    }
+
+    /**
+     * @return number of plays dropped by the rate limit of every channel.
+     */
+    public int getDropped()
+    {
+        int total = 0;
+        for (int i = 0; i < channels.size; i++) {
+            total += channels.get(i).getDropped();
+        }
+
+        return total;
+    }
+
+    /**
+     * @return number of voices stopped early to make room for a new play, in every channel.
+     */
+    public int getStolen()
+    {
+        int total = 0;
+        for (int i = 0; i < channels.size; i++) {
+            total += channels.get(i).getStolen();
+        }
+
+        return total;
+    }
+}
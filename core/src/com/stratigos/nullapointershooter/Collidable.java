@@ -0,0 +1,31 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Something projectiles can hit, such as the player's ship or an alien ship.
+ */
+public interface Collidable
+{
+    /**
+     * Defines collision border.
+     * @return a Rectangle which defines the border of the target.
+     */
+    Rectangle getBoundingBox();
+
+    /**
+     * Check if projectiles can currently hit this target. Dead ships can't be hit.
+     * @return TRUE if the target takes part in collision detection.
+     */
+    boolean isCollidable();
+
+    /**
+     * @return frames the target is drawn with, which a hit breaks into fragments.
+     */
+    SpriteSheet getSheet();
+
+    /**
+     * Called when a projectile hits this target.
+     */
+    void hit();
+}
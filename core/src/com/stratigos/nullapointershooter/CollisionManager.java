@@ -1,31 +1,100 @@
 package com.stratigos.nullapointershooter;
 
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
 /**
- * Class to handle collision detection.
+ * Class to handle collision detection. Targets are kept in a SpatialHash per side, so each projectile is only tested
+ *  against the ships sharing its cells, and the cost of a tick grows with the number of projectiles and targets rather
+ *  than with their product. When a ParticleSystem is set, every hit breaks the ship and the shot into fragments.
  * Created by stratigos on 7/26/15 via Pluralsight "Building Your First Game for Android..." course.
  */
 public class CollisionManager
 {
     /**
-     * Reference to main game loop's player Sprite.
+     * Fragments a ship breaks into when hit, their speed at the edge of the ship in pixels per second, and their
+     *  longest lifetime in seconds.
+     */
+    private static final int EXPLOSION_PARTICLES  = 24;
+    private static final float EXPLOSION_SPEED    = 90f;
+    private static final float EXPLOSION_LIFETIME = 0.8f;
+
+    /**
+     * Fragments a shot breaks into when it hits, their speed, and their longest lifetime.
      */
-    private final AnimatedSprite spaceshipAnimated;
+    private static final int IMPACT_PARTICLES  = 4;
+    private static final float IMPACT_SPEED    = 40f;
+    private static final float IMPACT_LIFETIME = 0.3f;
 
     /**
-     * Reference to main game loop's alien Sprite.
+     * Reference to main game loop's player Sprites.
      */
-    private final Enemy enemy;
+    private final Array<? extends Collidable> players;
+
+    /**
+     * Reference to main game loop's alien Sprites.
+     */
+    private final Array<? extends Collidable> enemies;
 
     /**
      * Reference to shots fired.
      */
     private final ShotManager shotManager;
 
-    public CollisionManager(AnimatedSprite spaceshipAnimated, Enemy enemy, ShotManager shotManager)
+    /**
+     * Broadphase grid of player Sprites, tested against alien shots.
+     */
+    private final SpatialHash playerHash = new SpatialHash();
+
+    /**
+     * Broadphase grid of alien Sprites, tested against player shots.
+     */
+    private final SpatialHash enemyHash = new SpatialHash();
+
+    /**
+     * Number of aliens, and of player ships, hit since the CollisionManager was created.
+     */
+    private long enemyHits  = 0;
+    private long playerHits = 0;
+
+    /**
+     * Receives the fragments of ships and shots which hit. Null if hits aren't shown.
+     */
+    private ParticleSystem particles;
+
+    /**
+     * @param players Ships which alien shots can hit. May change between ticks.
+     * @param enemies Ships which player shots can hit. May change between ticks.
+     * @param shotManager Owner of the projectiles.
+     */
+    public CollisionManager(Array<? extends Collidable> players, Array<? extends Collidable> enemies,
+                            ShotManager shotManager)
     {
-        this.spaceshipAnimated = spaceshipAnimated;
-        this.enemy             = enemy;
-        this.shotManager       = shotManager;
+        this.players     = players;
+        this.enemies     = enemies;
+        this.shotManager = shotManager;
+    }
+
+    /**
+     * Preallocate room for the largest expected number of ships, so ticks don't allocate as the number changes.
+     * @param playerCount Maximum number of player ships.
+     * @param enemyCount Maximum number of alien ships.
+     */
+    public void reserve(int playerCount, int enemyCount)
+    {
+        playerHash.reserve(playerCount);
+        enemyHash.reserve(enemyCount);
+    }
+
+    /**
+     * Set the particles hits are shown with.
+     * @param particles ParticleSystem, or null to stop showing hits.
+     */
+    public void setParticleSystem(ParticleSystem particles)
+    {
+        this.particles = particles;
     }
 
     /**
@@ -38,24 +107,107 @@ public class CollisionManager
     }
 
     /**
-     * Check if player shot alien, and if so, keel 'um.
+     * Hit every target struck by a projectile. Each projectile which hits is consumed, and a target stops being
+     *  tested as soon as it is no longer collidable (ships die on the first hit). Projectiles which moved less than
+     *  their own size during the last step are tested at their current position only; faster ones are swept from
+     *  their previous position, and hit the first target in their way, so they can't tunnel through a ship.
+     * @param hash Broadphase grid to register the targets in.
+     * @param targets Ships which the projectiles can hit.
+     * @param projectiles Shots to test.
+     * @param particles Receives the fragments of each target hit and of the shot which hit it, or null.
+     * @return number of targets hit.
      */
-    private void handleEnemyWasShot()
+    public static int handleCollisions(SpatialHash hash, Array<? extends Collidable> targets,
+                                        ProjectileStore projectiles, ParticleSystem particles)
     {
-        // Check shotManager to see if any boundaries are crossing.
-        if (shotManager.playerShotTouches(enemy.getBoundingBox())) {
-            enemy.hit();
+        hash.update(targets);
+
+        float width  = projectiles.getWidth();
+        float height = projectiles.getHeight();
+        int hits     = 0;
+
+        // Walk backwards, so consuming a shot doesn't skip the shot swapped into its slot.
+        for (int i = projectiles.size() - 1; i >= 0; i--) {
+            float x         = projectiles.getX(i);
+            float y         = projectiles.getY(i);
+            float previousX = projectiles.getPreviousX(i);
+            float previousY = projectiles.getPreviousY(i);
+
+            Collidable target;
+            if (!SweptCollision.needsSweep(x - previousX, y - previousY, width, height)) {
+                target = hash.findOverlap(x, y, width, height);
+            } else {
+                target = hash.findSweptOverlap(previousX, previousY, width, height, x - previousX, y - previousY);
+            }
+            if (target != null) {
+                target.hit();
+                if (particles != null) {
+                    Rectangle box = target.getBoundingBox();
+                    particles.explode(target.getSheet(), box.x, box.y, EXPLOSION_PARTICLES, EXPLOSION_SPEED,
+                        EXPLOSION_LIFETIME);
+                    particles.explode(projectiles.getSheet(), x, y, IMPACT_PARTICLES, IMPACT_SPEED, IMPACT_LIFETIME);
+                }
+                projectiles.remove(i);
+                hits++;
+            }
         }
+
+        return hits;
     }
 
     /**
-     * Check if alien shot player, and if so, get 'em outta here!
+     * @return number of aliens hit by player shots since the CollisionManager was created.
+     */
+    public long getEnemyHits()
+    {
+        return enemyHits;
+    }
+
+    /**
+     * @return number of times a player ship was hit by alien shots since the CollisionManager was created.
+     */
+    public long getPlayerHits()
+    {
+        return playerHits;
+    }
+
+    /**
+     * Number of bytes written by writeState().
+     */
+    public static final int STATE_SIZE = 2 * 8;
+
+    /**
+     * Write the hit counters, for a snapshot of the world. The spatial hashes are rebuilt from the ships at the next step.
+     * @param buffer Destination, with at least STATE_SIZE bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        buffer.putLong(enemyHits).putLong(playerHits);
+    }
+
+    /**
+     * Restore the state written by writeState().
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        enemyHits  = buffer.getLong();
+        playerHits = buffer.getLong();
+    }
+
+    /**
+     * Check if player shot aliens, and if so, keel 'um.
+     */
+    private void handleEnemyWasShot()
+    {
+        enemyHits += handleCollisions(enemyHash, enemies, shotManager.getPlayerShots(), particles);
+    }
+
+    /**
+     * Check if aliens shot player, and if so, get 'em outta here!
      */
     private void handlePlayerWasShot()
     {
-        // Check shotManager to see if any boundaries are crossing.
-        if (shotManager.enemyShotTouches(spaceshipAnimated.getBoundingBox())) {
-            spaceshipAnimated.setDead(true);
-        }
+        playerHits += handleCollisions(playerHash, players, shotManager.getEnemyShots(), particles);
     }
 }
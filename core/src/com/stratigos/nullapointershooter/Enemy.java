@@ -1,29 +1,32 @@
 package com.stratigos.nullapointershooter;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
 import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
 
-import java.util.Random;
+import java.nio.ByteBuffer;
 
 /**
  * Alien spaceship Sprite class.
  * Created by stratigos on 7/26/15 via Pluralsight "Building your First Game for Android..." course.
  */
-public class Enemy
+public class Enemy implements Collidable
 {
     /**
-     * Velocity of alien spaceship on screen.
+     * Velocity of alien spaceship on screen, unless configured otherwise.
      */
     public static final float ENEMY_SPEED = 250;
 
     /**
-     * Texture to hold spritemap for the alien ship.
+     * Height above the bottom of the alien Sprite from which its shots are fired.
      */
-    private final Texture enemyTexture;
+    private static final float SHOT_Y_OFFSET = 40;
+
+    /**
+     * Pool of alien ship Sprites. The Sprite of a destroyed ship is returned here, and reused on respawn.
+     */
+    private final AnimatedSpritePool spritePool;
 
     /**
      * Main game loop's ShotManager instance.
@@ -40,10 +43,59 @@ public class Enemy
      */
     private float spawnTimeout = 0f;
 
-    public Enemy(Texture enemyTexture, ShotManager shotManager)
+    /**
+     * Source of the alien's random decisions. Created once, instead of on each decision. Aliens moved in parallel
+     *  must each have their own, or their decisions would depend on the order threads draw from it.
+     */
+    private final RandomXS128 random;
+
+    /**
+     * Has the alien decided to fire during updateMovement(), and from where.
+     */
+    private boolean pendingShot = false;
+    private float shotX;
+    private float shotY;
+
+    /**
+     * Has the alien's respawn timeout run out during updateMovement().
+     */
+    private boolean pendingSpawn = false;
+
+    /**
+     * Seconds of life since the alien's last AI decision.
+     */
+    private float timeSinceDecision = 0f;
+
+    /**
+     * Has the alien been told to make an AI decision during the coming updateMovement().
+     */
+    private boolean decisionDue = false;
+
+    /**
+     * Tunables for respawning and firing.
+     */
+    private final WaveConfiguration config;
+
+    /**
+     * Create an alien with the default tunables, and its own source of random decisions.
+     */
+    public Enemy(AnimatedSpritePool spritePool, ShotManager shotManager)
     {
-        this.enemyTexture = enemyTexture;
-        this.shotManager  = shotManager;
+        this(spritePool, shotManager, new RandomXS128(), new WaveConfiguration());
+    }
+
+    /**
+     * @param spritePool Pool of alien ship Sprites.
+     * @param shotManager Owner of the shots the alien fires.
+     * @param random Source of the alien's random decisions. Its state is part of the alien's snapshot.
+     * @param config Tunables for respawning and firing.
+     */
+    public Enemy(AnimatedSpritePool spritePool, ShotManager shotManager, RandomXS128 random, WaveConfiguration config)
+    {
+        this.spritePool  = spritePool;
+        this.shotManager = shotManager;
+        this.random      = random;
+        this.config      = config;
 
         spawn();
     }
@@ -51,68 +103,237 @@ public class Enemy
     /**
      * Draw the alien Sprite on the screen.
      * @param batch Main game loop SpriteBatch
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
      */
-    public void draw(SpriteBatch batch)
+    public void draw(SpriteBatch batch, float alpha)
     {
         if (!animatedSprite.isDead()) {
-            animatedSprite.draw(batch);
+            animatedSprite.draw(batch, alpha);
         }
     }
 
     /**
-     * Move the alien ship, and fire a shot, if the Sprite is alive. If its dead, wait for respawn.
+     * Move the alien ship, and fire a shot, if the Sprite is alive. If its dead, wait for respawn. The alien makes an
+     *  AI decision at every call; aliens of a wave are told when to decide by an AiScheduler instead.
+     * @param delta Seconds passed in this simulation step.
      */
-    public void update()
+    public void update(float delta)
+    {
+        scheduleDecision();
+        updateMovement(delta);
+        applyDecisions();
+    }
+
+    /**
+     * First half of update(): decide whether to turn, fire or respawn, and move. Only touches this alien's own state,
+     *  so different aliens may run it on different threads at once. Firing and respawning are left to
+     *  applyDecisions().
+     * @param delta Seconds passed in this simulation step.
+     */
+    public void updateMovement(float delta)
     {
         if (animatedSprite.isDead()) {
-            // Reduce timeout timer for respawn on each update() When this.spawnTimeout hits 0, respawn.
-            spawnTimeout -= Gdx.graphics.getDeltaTime();
+            // Reduce timeout timer for respawn on each update() When this.spawnTimeout hits 0, respawn. Aliens which
+            //  don't respawn wait for the next wave instead.
+            if (config.respawnDelay == WaveConfiguration.NO_RESPAWN) {
+                return;
+            }
+            spawnTimeout -= delta;
             if (spawnTimeout <= 0) {
-                spawn();
+                pendingSpawn = true;
             }
         } else {
-            // Perform "classic AI" logic, then animate the Sprite.
-            if (shouldChangeDirection()) {
-                animatedSprite.changeDirection();
-            }
-            if (shouldShoot()) {
-                shotManager.fireEnemyShot(animatedSprite.getX());
+            // Perform "classic AI" logic when told to, weighing the odds by the time since the last decision, then
+            //  animate the Sprite. Shots leave from where the alien was when it decided to fire.
+            timeSinceDecision += delta;
+            if (decisionDue) {
+                decisionDue = false;
+                if (shouldChangeDirection(timeSinceDecision)) {
+                    animatedSprite.changeDirection();
+                }
+                if (shouldShoot(timeSinceDecision)) {
+                    pendingShot = true;
+                    shotX       = animatedSprite.getX();
+                    shotY       = animatedSprite.getY() + SHOT_Y_OFFSET;
+                }
+                timeSinceDecision = 0f;
             }
 
-            animatedSprite.move();
+            animatedSprite.move(delta);
         }
     }
 
+    /**
+     * Second half of update(): fire and respawn, as decided by updateMovement(). Touches the ShotManager and Sprite
+     *  pool shared by every alien, so it must run on one thread, alien after alien in a fixed order.
+     */
+    public void applyDecisions()
+    {
+        if (pendingShot) {
+            pendingShot = false;
+            fire(shotX, shotY);
+        }
+        if (pendingSpawn) {
+            spawn();
+        }
+    }
+
+    /**
+     * Tell the alien to make an AI decision during the coming updateMovement(), if it is alive.
+     */
+    public void scheduleDecision()
+    {
+        decisionDue = true;
+    }
+
+    /**
+     * @return seconds of life since the alien's last AI decision.
+     */
+    public float getTimeSinceDecision()
+    {
+        return timeSinceDecision;
+    }
+
+    /**
+     * @return pixel x-position of the center of the alien ship.
+     */
+    public float getX()
+    {
+        return animatedSprite.getX();
+    }
+
     /**
      * Defines collision border.
      * @return a Rectangle instance which defines the border of the Sprite.
      */
+    @Override
     public Rectangle getBoundingBox()
     {
         return animatedSprite.getBoundingBox();
     }
 
+    /**
+     * A destroyed alien ship can't be shot while it waits to respawn.
+     * @return TRUE if the alien ship is alive.
+     */
+    @Override
+    public boolean isCollidable()
+    {
+        return !animatedSprite.isDead();
+    }
+
+    /**
+     * @return shared frames of the alien ship.
+     */
+    @Override
+    public SpriteSheet getSheet()
+    {
+        return animatedSprite.getSheet();
+    }
+
     /**
      * Die when hit.
      */
+    @Override
     public void hit()
     {
         animatedSprite.setDead(true);
-        spawnTimeout = 2f;
+        spawnTimeout = config.respawnDelay;
     }
 
     /**
-     * Instance a Sprite and set its position and velocity on the screen.
+     * Obtain a Sprite from the Pool and set its position and velocity on the screen. The Sprite of the previous,
+     *  destroyed ship (if any) is returned to the Pool first.
      */
-    private void spawn()
+    public void spawn()
     {
-        Sprite enemySprite = new Sprite(enemyTexture);
-        animatedSprite     = new AnimatedSprite(enemySprite);
-        int xPosition      = createRandomPosition();
+        if (animatedSprite != null) {
+            spritePool.free(animatedSprite);
+        }
 
-        animatedSprite.setPosition(xPosition, (ShooterGame.SCREEN_HEIGHT - animatedSprite.getHeight()));
-        animatedSprite.setVelocity(new Vector2(ENEMY_SPEED, 0));
+        animatedSprite  = spritePool.obtain();
+        int xPosition   = createRandomPosition();
+        float yPosition = ShooterGame.SCREEN_HEIGHT - animatedSprite.getHeight()
+            - (random.nextFloat() * config.spawnBandHeight);
+
+        animatedSprite.setPosition(xPosition, yPosition);
+        animatedSprite.setVelocity(config.enemySpeed, 0);
         animatedSprite.setDead(false);
+        pendingSpawn = false;
+
+        // Start partway through the decision interval, so aliens spawned together don't all decide at the same step.
+        timeSinceDecision = random.nextFloat() / config.decisionRate;
+        decisionDue       = false;
+    }
+
+    /**
+     * Number of bytes written by writeState().
+     */
+    public static final int STATE_SIZE = AnimatedSprite.STATE_SIZE + 4 + 1 + 2 * 4 + 1 + 4 + 2 * 8;
+
+    /**
+     * Write the alien's Sprite, timers, pending decisions and RNG state, for a snapshot of the world. No AI decision
+     *  is ever due between steps, so that flag isn't written.
+     * @param buffer Destination, with at least STATE_SIZE bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        animatedSprite.writeState(buffer);
+        buffer.putFloat(spawnTimeout);
+        buffer.put((byte) (pendingShot ? 1 : 0)).putFloat(shotX).putFloat(shotY);
+        buffer.put((byte) (pendingSpawn ? 1 : 0));
+        buffer.putFloat(timeSinceDecision);
+        buffer.putLong(random.getState(0)).putLong(random.getState(1));
+    }
+
+    /**
+     * Restore the state written by writeState(). Every Sprite of the pool is alike, so the state is restored into
+     *  whichever Sprite the alien currently holds.
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        animatedSprite.readState(buffer);
+        spawnTimeout      = buffer.getFloat();
+        pendingShot       = buffer.get() != 0;
+        shotX             = buffer.getFloat();
+        shotY             = buffer.getFloat();
+        pendingSpawn      = buffer.get() != 0;
+        timeSinceDecision = buffer.getFloat();
+        decisionDue       = false;
+        random.setState(buffer.getLong(), buffer.getLong());
+    }
+
+    /**
+     * Fire the configured pattern of shots.
+     * @param x Center of the shots.
+     * @param y Bottom of the shots.
+     */
+    private void fire(float x, float y)
+    {
+        float speed = config.shotSpeed;
+        int count   = config.shotsPerPattern;
+
+        switch (config.shotPattern) {
+            case SPREAD:
+                // Fan out from straight down (270 degrees), one shot at each end of the angle.
+                float step  = count > 1 ? config.spreadAngle / (count - 1) : 0f;
+                float start = 270f - (config.spreadAngle / 2f);
+                for (int i = 0; i < count; i++) {
+                    float angle = count > 1 ? start + (i * step) : 270f;
+                    shotManager.fireEnemyShot(x, y, MathUtils.cosDeg(angle) * speed, MathUtils.sinDeg(angle) * speed);
+                }
+                break;
+            case RING:
+                for (int i = 0; i < count; i++) {
+                    float angle = 270f + (i * 360f / count);
+                    shotManager.fireEnemyShot(x, y, MathUtils.cosDeg(angle) * speed, MathUtils.sinDeg(angle) * speed);
+                }
+                break;
+            default:
+                shotManager.fireEnemyShot(x, y, 0, -speed);
+                break;
+        }
     }
 
     /**
@@ -123,29 +344,29 @@ public class Enemy
     {
         // Create random number between half of the width of the enemy ship, and the screen width less half the width of
         //  the enemy ship. The half-ship-width border prevents half the ship from being drawn off the screen.
-        Random random    = new Random();
         int randomNumber = random.nextInt((ShooterGame.SCREEN_WIDTH - animatedSprite.getWidth()) + 1);
 
         return randomNumber + (animatedSprite.getWidth() / 2);
     }
 
     /**
-     * Determines if alien ship should change direction from left to right, or right to left.
+     * Determines if alien ship should change direction from left to right, or right to left, so that on average it
+     *  turns with the configured odds every 60th of a second, however often it decides.
+     * @param elapsed Seconds since the alien's last decision.
      * @return TRUE if direction should change.
      */
-    private boolean shouldChangeDirection()
+    private boolean shouldChangeDirection(float elapsed)
     {
-        Random random = new Random();
-        return random.nextInt(41) == 0;
+        return random.nextFloat() * config.directionChangeOdds * GameClock.TIME_STEP < elapsed;
     }
 
     /**
-     *
+     * Decide to fire, so that on average the alien fires the configured number of times per second.
+     * @param elapsed Seconds since the alien's last decision.
      * @return TRUE if weapon should be shot.
      */
-    private boolean shouldShoot()
+    private boolean shouldShoot(float elapsed)
     {
-        Random random = new Random();
-        return random.nextInt(61) == 0;
+        return random.nextFloat() < config.fireRate * elapsed;
     }
 }
@@ -0,0 +1,270 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+/**
+ * Spawns aliens in waves, and updates and draws every alien of the current wave. Once all aliens of a wave are
+ *  destroyed, the next, larger wave spawns after a pause. Every alien and its Sprite are allocated up front, up to the
+ *  configured maximum, so starting a wave never allocates.
+ *
+ * Aliens may be moved on several threads, so each draws its decisions from its own RNG, seeded from the one given
+ *  to the waves. Firing and respawning then happen on the calling thread, in wave order, so the outcome is the same
+ *  however many threads are used. Which aliens make an AI decision at each step is picked beforehand, also on the
+ *  calling thread, by an AiScheduler.
+ */
+public class EnemyWaves
+{
+    /**
+     * Tunables of the waves.
+     */
+    private final WaveConfiguration config;
+
+    /**
+     * Every alien which may take part in a wave, whether in the current one or not.
+     */
+    private final Array<Enemy> allEnemies;
+
+    /**
+     * Aliens of the current wave. Handed to collision detection, which sees the wave change between ticks.
+     */
+    private final Array<Enemy> enemies;
+
+    /**
+     * Picks the aliens which make an AI decision at each step.
+     */
+    private final AiScheduler scheduler;
+
+    /**
+     * Number of the current wave, starting at 1.
+     */
+    private int wave = 0;
+
+    /**
+     * Seconds left before the next wave spawns, once the current one is cleared.
+     */
+    private float waveTimeout;
+
+    /**
+     * Number of aliens of the current wave alive after the last update.
+     */
+    private int liveEnemies = 0;
+
+    /**
+     * Number of aliens spawned or respawned during the last update.
+     */
+    private int spawned = 0;
+
+    /**
+     * Threads to move aliens on. Null to move them on the calling thread.
+     */
+    private ParallelUpdater updater;
+
+    /**
+     * Length of the step being run by moveTask.
+     */
+    private float stepDelta;
+
+    /**
+     * Moves a range of the current wave's aliens by stepDelta.
+     */
+    private final RangeTask moveTask = new RangeTask()
+    {
+        @Override
+        public void run(int from, int to)
+        {
+            for (int i = from; i < to; i++) {
+                enemies.get(i).updateMovement(stepDelta);
+            }
+        }
+    };
+
+    /**
+     * @param spriteSheet Frames of the alien spaceship.
+     * @param shotManager Owner of the shots the aliens fire.
+     * @param random Source of the seeds of each alien's random decisions.
+     * @param config Tunables of the waves.
+     */
+    public EnemyWaves(SpriteSheet spriteSheet, ShotManager shotManager, Random random, WaveConfiguration config)
+    {
+        this.config = config;
+        scheduler   = new AiScheduler(config);
+
+        AnimatedSpritePool spritePool = new AnimatedSpritePool(spriteSheet, config.maxEnemies);
+        allEnemies                    = new Array<Enemy>(config.maxEnemies);
+        enemies                       = new Array<Enemy>(config.maxEnemies);
+        for (int i = 0; i < config.maxEnemies; i++) {
+            allEnemies.add(new Enemy(spritePool, shotManager, new RandomXS128(random.nextLong()), config));
+        }
+
+        startNextWave();
+    }
+
+    /**
+     * Update every alien of the current wave, and spawn the next wave once it is cleared.
+     * @param delta Seconds passed in this simulation step.
+     * @param focusX X position of the player's ship. Aliens near it make AI decisions more often.
+     */
+    public void update(float delta, float focusX)
+    {
+        scheduler.schedule(enemies, delta, focusX);
+
+        // Move every alien, possibly on several threads, then let them fire and respawn one after the other.
+        stepDelta = delta;
+        if (updater != null) {
+            updater.run(enemies.size, moveTask);
+        } else {
+            moveTask.run(0, enemies.size);
+        }
+
+        liveEnemies = 0;
+        spawned     = 0;
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy  = enemies.get(i);
+            boolean dead = !enemy.isCollidable();
+            enemy.applyDecisions();
+            if (enemy.isCollidable()) {
+                liveEnemies++;
+                if (dead) {
+                    spawned++;
+                }
+            }
+        }
+
+        // Respawning aliens keep their wave going forever.
+        if (liveEnemies == 0 && config.respawnDelay == WaveConfiguration.NO_RESPAWN) {
+            waveTimeout -= delta;
+            if (waveTimeout <= 0) {
+                startNextWave();
+            }
+        }
+    }
+
+    /**
+     * Set the threads aliens are moved on.
+     * @param updater Threads to move aliens on, or null to move them on the calling thread.
+     */
+    public void setParallelUpdater(ParallelUpdater updater)
+    {
+        this.updater = updater;
+    }
+
+    /**
+     * Draw every live alien of the current wave.
+     * @param batch Main game loop SpriteBatch
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
+     */
+    public void draw(SpriteBatch batch, float alpha)
+    {
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).draw(batch, alpha);
+        }
+    }
+
+    /**
+     * @return aliens of the current wave, alive or not. Must not be modified.
+     */
+    public Array<Enemy> getEnemies()
+    {
+        return enemies;
+    }
+
+    /**
+     * @return number of aliens of the current wave alive after the last update.
+     */
+    public int getLiveEnemies()
+    {
+        return liveEnemies;
+    }
+
+    /**
+     * @return number of aliens spawned or respawned during the last update.
+     */
+    public int getSpawned()
+    {
+        return spawned;
+    }
+
+    /**
+     * @return number of the current wave, starting at 1.
+     */
+    public int getWave()
+    {
+        return wave;
+    }
+
+    /**
+     * @return the object which picks the aliens making an AI decision at each step, and counts decisions.
+     */
+    public AiScheduler getScheduler()
+    {
+        return scheduler;
+    }
+
+    /**
+     * @return number of bytes written by writeState().
+     */
+    public int getStateSize()
+    {
+        return 4 * 4 + AiScheduler.STATE_SIZE + allEnemies.size * Enemy.STATE_SIZE;
+    }
+
+    /**
+     * Write the wave counters, the AI scheduler and every alien, whether in the current wave or not, for a snapshot
+     *  of the world.
+     * @param buffer Destination, with at least getStateSize() bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        buffer.putInt(wave).putFloat(waveTimeout).putInt(liveEnemies).putInt(enemies.size);
+        scheduler.writeState(buffer);
+        for (int i = 0; i < allEnemies.size; i++) {
+            allEnemies.get(i).writeState(buffer);
+        }
+    }
+
+    /**
+     * Restore the state written by writeState().
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        wave        = buffer.getInt();
+        waveTimeout = buffer.getFloat();
+        liveEnemies = buffer.getInt();
+
+        // A wave is always made of the first aliens, in order.
+        int count = buffer.getInt();
+        enemies.clear();
+        for (int i = 0; i < count; i++) {
+            enemies.add(allEnemies.get(i));
+        }
+        scheduler.readState(buffer);
+        for (int i = 0; i < allEnemies.size; i++) {
+            allEnemies.get(i).readState(buffer);
+        }
+    }
+
+    /**
+     * Spawn the aliens of the next wave.
+     */
+    private void startNextWave()
+    {
+        wave++;
+        waveTimeout = config.timeBetweenWaves;
+
+        int count = Math.min(config.firstWaveEnemies + ((wave - 1) * config.enemiesPerWave), config.maxEnemies);
+        enemies.clear();
+        for (int i = 0; i < count; i++) {
+            Enemy enemy = allEnemies.get(i);
+            enemy.spawn();
+            enemies.add(enemy);
+        }
+        liveEnemies = count;
+        spawned    += count;
+    }
+}
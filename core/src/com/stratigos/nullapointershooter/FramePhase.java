@@ -0,0 +1,42 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * The parts of a frame which are measured separately by profiling tools.
+ */
+public enum FramePhase
+{
+    /**
+     * Applying touch input to the player's ship.
+     */
+    INPUT,
+
+    /**
+     * Moving the player's ship.
+     */
+    PLAYER,
+
+    /**
+     * Alien AI, movement and respawning.
+     */
+    ENEMIES,
+
+    /**
+     * Moving and culling shots.
+     */
+    SHOTS,
+
+    /**
+     * Collision detection between shots and ships.
+     */
+    COLLISIONS,
+
+    /**
+     * Moving and aging the fragments of ships and shots which were hit.
+     */
+    PARTICLES,
+
+    /**
+     * Drawing the scene.
+     */
+    DRAW
+}
@@ -0,0 +1,20 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Notified as each phase of a frame starts and ends, e.g. to measure time or memory spent in it. Calls for a phase
+ *  always come in pairs, on the thread running the simulation, and phases don't nest.
+ */
+public interface FramePhaseListener
+{
+    /**
+     * Called right before a phase runs.
+     * @param phase Phase about to run.
+     */
+    void phaseStarted(FramePhase phase);
+
+    /**
+     * Called right after a phase ran.
+     * @param phase Phase which just ran.
+     */
+    void phaseEnded(FramePhase phase);
+}
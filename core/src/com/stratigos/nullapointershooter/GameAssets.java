@@ -0,0 +1,130 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.assets.AssetManager;
+import com.badlogic.gdx.assets.loaders.TextureLoader;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+
+/**
+ * Every asset the game needs once it is playing, loaded in the background by an AssetManager. Images are decoded and
+ *  audio files opened on the AssetManager's worker thread, and only the upload of decoded Textures runs on the render
+ *  thread, a slice at a time, so a loading screen can be drawn meanwhile.
+ */
+public class GameAssets
+{
+    /**
+     * Internal paths of the assets.
+     */
+    private static final String ATLAS      = "sprites.atlas";
+    private static final String BACKGROUND = "spacebackground.png";
+    private static final String LASER      = "shoot.wav";
+    private static final String PLASMA     = "alienshot.mp3";
+    private static final String GAME_MUSIC = "ambient.flac";
+
+    /**
+     * Loads the assets, and owns them once loaded.
+     */
+    private final AssetManager manager = new AssetManager();
+
+    /**
+     * Is the background music file bundled. It isn't part of every build, so the game plays without it if absent.
+     */
+    private final boolean hasMusic;
+
+    /**
+     * Queue every asset for loading. Nothing is loaded until update() is called.
+     */
+    public GameAssets()
+    {
+        manager.load(ATLAS, TextureAtlas.class);
+        // The background is fully opaque; dropping its alpha channel lets StaticLayer draw it without blending.
+        TextureLoader.TextureParameter opaque = new TextureLoader.TextureParameter();
+        opaque.format                         = Pixmap.Format.RGB888;
+        manager.load(BACKGROUND, Texture.class, opaque);
+        manager.load(LASER, Sound.class);
+        manager.load(PLASMA, Sound.class);
+
+        hasMusic = Gdx.files.internal(GAME_MUSIC).exists();
+        if (hasMusic) {
+            manager.load(GAME_MUSIC, Music.class);
+        }
+    }
+
+    /**
+     * Continue loading for up to a given time. Must be called on the render thread.
+     * @param millis Maximum time to block, in milliseconds. Finishing the current step may take longer.
+     * @return TRUE once every asset is loaded.
+     */
+    public boolean update(int millis)
+    {
+        return manager.update(millis);
+    }
+
+    /**
+     * @return fraction of assets loaded so far, from 0 to 1.
+     */
+    public float getProgress()
+    {
+        return manager.getProgress();
+    }
+
+    /**
+     * @return number of assets loaded so far.
+     */
+    public int getLoadedAssets()
+    {
+        return manager.getLoadedAssets();
+    }
+
+    /**
+     * @return atlas holding every Sprite map.
+     */
+    public TextureAtlas getAtlas()
+    {
+        return manager.get(ATLAS, TextureAtlas.class);
+    }
+
+    /**
+     * @return image of outer space, drawn behind everything else. Has no alpha channel.
+     */
+    public Texture getBackground()
+    {
+        return manager.get(BACKGROUND, Texture.class);
+    }
+
+    /**
+     * @return audio effect for the player firing a shot.
+     */
+    public Sound getLaser()
+    {
+        return manager.get(LASER, Sound.class);
+    }
+
+    /**
+     * @return audio effect for the alien firing a shot.
+     */
+    public Sound getPlasma()
+    {
+        return manager.get(PLASMA, Sound.class);
+    }
+
+    /**
+     * @return background music, or null if the music file isn't bundled.
+     */
+    public Music getGameMusic()
+    {
+        return hasMusic ? manager.get(GAME_MUSIC, Music.class) : null;
+    }
+
+    /**
+     * Dispose of every asset, loaded or still loading.
+     */
+    public void dispose()
+    {
+        manager.dispose();
+    }
+}
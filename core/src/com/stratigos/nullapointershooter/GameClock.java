@@ -0,0 +1,80 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Frame clock shared by every system of the game. Real time reported by the backend is accumulated, and handed out
+ *  as fixed-length simulation steps, so gameplay runs at the same speed whether frames are drawn at 30Hz or 240Hz.
+ *  Time left over after the last whole step is exposed as an interpolation factor for drawing.
+ */
+public class GameClock
+{
+    /**
+     * Length of one simulation step, in seconds.
+     */
+    public static final float TIME_STEP = 1f / 60f;
+
+    /**
+     * Longest frame time accepted, in seconds. After a long stall (e.g. the app was paused), the simulation skips
+     *  ahead instead of trying to catch up with hundreds of steps.
+     */
+    private static final float MAX_FRAME_TIME = 0.25f;
+
+    /**
+     * Real time which has not been simulated yet.
+     */
+    private float accumulator = 0f;
+
+    /**
+     * Number of simulation steps run so far.
+     */
+    private long ticks = 0;
+
+    /**
+     * Add the real time which passed since the last frame.
+     * @param frameTime Seconds since the last frame, typically Gdx.graphics.getDeltaTime().
+     */
+    public void advance(float frameTime)
+    {
+        accumulator += Math.min(frameTime, MAX_FRAME_TIME);
+    }
+
+    /**
+     * Take one simulation step from the accumulated time, if there is enough of it.
+     * @return TRUE if a step should be simulated.
+     */
+    public boolean consumeStep()
+    {
+        if (accumulator < TIME_STEP) {
+            return false;
+        }
+
+        accumulator -= TIME_STEP;
+        ticks++;
+
+        return true;
+    }
+
+    /**
+     * @return length of one simulation step, in seconds.
+     */
+    public float getStep()
+    {
+        return TIME_STEP;
+    }
+
+    /**
+     * How far real time has progressed between the last simulated step and the next one.
+     * @return interpolation factor between 0 (previous step) and 1 (current step).
+     */
+    public float getAlpha()
+    {
+        return accumulator / TIME_STEP;
+    }
+
+    /**
+     * @return number of simulation steps run so far.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+}
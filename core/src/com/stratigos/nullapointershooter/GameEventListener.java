@@ -0,0 +1,49 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Notified of everything a profiler may want to line up against its own timeline: frames, the phases of each
+ *  simulation step, SpriteBatch flushes and asset loading slices. Calls come in started / ended pairs, on the render
+ *  thread, so an implementation can time each one. Calls are only made while a listener is set, so a game without one
+ *  pays nothing.
+ */
+public interface GameEventListener extends FramePhaseListener
+{
+    /**
+     * Called at the start of every frame.
+     * @param world The simulation, or null while assets are loading.
+     */
+    void frameStarted(GameWorld world);
+
+    /**
+     * Called at the end of every frame, after the scene and the overlay are drawn.
+     * @param world The simulation, or null while assets are loading. Set on the frame loading completes, unlike the
+     *  world given to frameStarted().
+     * @param steps Number of simulation steps run during the frame.
+     */
+    void frameEnded(GameWorld world, int steps);
+
+    /**
+     * Called right before a SpriteBatch flush.
+     */
+    void batchFlushStarted();
+
+    /**
+     * Called right after a SpriteBatch flush.
+     * @param drawn TRUE if the flush issued a draw call, FALSE if there was nothing to draw.
+     * @param renderCalls Draw calls issued since the batch began, including this one.
+     * @param textureSwitches Texture switches since the batch began.
+     */
+    void batchFlushEnded(boolean drawn, int renderCalls, int textureSwitches);
+
+    /**
+     * Called right before a slice of asset loading.
+     */
+    void assetLoadStarted();
+
+    /**
+     * Called right after a slice of asset loading.
+     * @param loadedAssets Number of assets loaded so far.
+     * @param progress Fraction of assets loaded so far, from 0 to 1.
+     */
+    void assetLoadEnded(int loadedAssets, float progress);
+}
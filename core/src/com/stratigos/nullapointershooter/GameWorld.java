@@ -0,0 +1,411 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.Array;
+
+import java.nio.ByteBuffer;
+
+/**
+ * The game simulation: the player's ship, the waves of aliens, their shots, and collision handling. A GameWorld needs
+ *  no graphics context, so it can be driven by ShooterGame on a device, or by a headless runner with no GPU at all.
+ *  Input is fed in as plain values before each step, instead of being polled from Gdx.input.
+ *
+ * Every random decision is drawn from RNGs derived from one seed, and steps have a fixed length, so two worlds with
+ *  the same seed and wave tunables, fed the same input at every step, go through exactly the same states. This is what
+ *  InputRecorder and InputReplay rely on. Moving aliens and shots on several threads, with setParallelUpdater(),
+ *  doesn't change this either.
+ */
+public class GameWorld
+{
+    /**
+     * State of game.
+     */
+    private boolean isGameOver = false;
+
+    /**
+     * Sprite for the player's spaceship.
+     */
+    private final AnimatedSprite spaceshipAnimated;
+
+    /**
+     * Spawns, updates and draws alien spaceships.
+     */
+    private final EnemyWaves enemyWaves;
+
+    /**
+     * Tunables of the alien waves.
+     */
+    private final WaveConfiguration waveConfig;
+
+    /**
+     * Seed every random decision is derived from.
+     */
+    private final long seed;
+
+    /**
+     * Object which handles the shooting feature of the spaceship.
+     */
+    private final ShotManager shotManager;
+
+    /**
+     * Object which handles collision detection.
+     */
+    private final CollisionManager collisionManager;
+
+    /**
+     * Fragments of ships and shots which were hit. Null if hits aren't shown.
+     */
+    private ParticleSystem particles;
+
+    /**
+     * Is the screen touched during the coming step.
+     */
+    private boolean touched = false;
+
+    /**
+     * X position of the touch, in world coordinates.
+     */
+    private float touchX = 0f;
+
+    /**
+     * Optional profiling hook, notified around each phase of a step. Null if nothing is listening.
+     */
+    private FramePhaseListener phaseListener;
+
+    /**
+     * Create a world with the default alien waves, and a random seed.
+     * @param spaceshipSheet Frames of the player's spaceship.
+     * @param enemySheet Frames of the alien spaceship.
+     * @param shotSheet Frames of the player's shots.
+     * @param enemyShotSheet Frames of the alien shots.
+     */
+    public GameWorld(SpriteSheet spaceshipSheet, SpriteSheet enemySheet, SpriteSheet shotSheet,
+                     SpriteSheet enemyShotSheet)
+    {
+        this(spaceshipSheet, enemySheet, shotSheet, enemyShotSheet, new WaveConfiguration(),
+            MathUtils.random.nextLong());
+    }
+
+    /**
+     * @param spaceshipSheet Frames of the player's spaceship.
+     * @param enemySheet Frames of the alien spaceship.
+     * @param shotSheet Frames of the player's shots.
+     * @param enemyShotSheet Frames of the alien shots.
+     * @param waveConfig Tunables of the alien waves.
+     * @param seed Seed every random decision is derived from.
+     */
+    public GameWorld(SpriteSheet spaceshipSheet, SpriteSheet enemySheet, SpriteSheet shotSheet,
+                     SpriteSheet enemyShotSheet, WaveConfiguration waveConfig, long seed)
+    {
+        this.waveConfig = waveConfig;
+        this.seed       = seed;
+
+        // Create ShotManager instance to track/animate shooting.
+        shotManager = new ShotManager(shotSheet, enemyShotSheet, waveConfig.playerShotInterval);
+
+        // Create the animated spaceship.
+        spaceshipAnimated = new AnimatedSprite(spaceshipSheet);
+        spaceshipAnimated.setPosition((ShooterGame.SCREEN_WIDTH / 2), 0);
+
+        // Create the first wave of alien spaceships.
+        enemyWaves = new EnemyWaves(enemySheet, shotManager, new RandomXS128(seed), waveConfig);
+
+        // Create collision detection handler.
+        Array<AnimatedSprite> players = new Array<AnimatedSprite>();
+        players.add(spaceshipAnimated);
+        collisionManager = new CollisionManager(players, enemyWaves.getEnemies(), shotManager);
+        collisionManager.reserve(players.size, waveConfig.maxEnemies);
+    }
+
+    /**
+     * Set the input to apply during the coming step.
+     * @param touched TRUE if the screen is touched.
+     * @param touchX X position of the touch, in world coordinates. Ignored if not touched.
+     */
+    public void setInput(boolean touched, float touchX)
+    {
+        this.touched = touched;
+        this.touchX  = touchX;
+    }
+
+    /**
+     * Advance the simulation by one fixed step.
+     * @param delta Seconds passed in this simulation step.
+     */
+    public void update(float delta)
+    {
+        // Apply touch input.
+        phaseStarted(FramePhase.INPUT);
+        handleInput();
+        phaseEnded(FramePhase.INPUT);
+
+        if (!isGameOver) {
+            // Animate spaceship movement.
+            phaseStarted(FramePhase.PLAYER);
+            spaceshipAnimated.move(delta);
+            phaseEnded(FramePhase.PLAYER);
+
+            // Animate alien spaceship movement, and spawn new waves.
+            phaseStarted(FramePhase.ENEMIES);
+            enemyWaves.update(delta, spaceshipAnimated.getX());
+            phaseEnded(FramePhase.ENEMIES);
+
+            // Animate projectiles / shots movement.
+            phaseStarted(FramePhase.SHOTS);
+            shotManager.update(delta);
+            phaseEnded(FramePhase.SHOTS);
+
+            // Check for collisions.
+            phaseStarted(FramePhase.COLLISIONS);
+            collisionManager.handleCollisions();
+            phaseEnded(FramePhase.COLLISIONS);
+        }
+
+        // Let fragments fly out, even once the game is over.
+        if (particles != null) {
+            phaseStarted(FramePhase.PARTICLES);
+            particles.update(delta);
+            phaseEnded(FramePhase.PARTICLES);
+        }
+
+        // Check for game-over state. An invincible ship shrugs off the hit instead.
+        if (spaceshipAnimated.isDead()) {
+            if (waveConfig.invinciblePlayer) {
+                spaceshipAnimated.setDead(false);
+            } else {
+                isGameOver = true;
+            }
+        }
+    }
+
+    /**
+     * Draw ships and shots, interpolating them between the last two simulation steps.
+     * @param batch SpriteBatch which has already begun drawing.
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
+     */
+    public void draw(SpriteBatch batch, float alpha)
+    {
+        // Draw spaceship Sprite, unless it has been hit and broken into fragments.
+        if (!spaceshipAnimated.isDead()) {
+            spaceshipAnimated.draw(batch, alpha);
+        }
+
+        // Draw the alien spaceships.
+        enemyWaves.draw(batch, alpha);
+
+        // Draw the spaceship's projectiles / shots.
+        shotManager.draw(batch, alpha);
+
+        // Draw the fragments of ships and shots which were hit, over everything else.
+        if (particles != null) {
+            particles.draw(batch, alpha);
+        }
+    }
+
+    /**
+     * Set the threads aliens and shots are moved on. Collisions, firing and spawning stay on the calling thread, so
+     *  the world goes through the same states with or without them.
+     * @param updater Threads to move aliens and shots on, or null to move them on the calling thread.
+     */
+    public void setParallelUpdater(ParallelUpdater updater)
+    {
+        enemyWaves.setParallelUpdater(updater);
+        shotManager.setParallelUpdater(updater);
+    }
+
+    /**
+     * Set the particles hits are shown with. They are cosmetic, and don't change the simulation.
+     * @param particles ParticleSystem, or null to stop showing hits.
+     */
+    public void setParticleSystem(ParticleSystem particles)
+    {
+        this.particles = particles;
+        collisionManager.setParticleSystem(particles);
+    }
+
+    /**
+     * Set the profiling hook notified around each phase of a step.
+     * @param phaseListener Listener, or null to stop notifying.
+     */
+    public void setPhaseListener(FramePhaseListener phaseListener)
+    {
+        this.phaseListener = phaseListener;
+    }
+
+    /**
+     * @return TRUE if the player's ship has been hit, and the game waits for a touch to restart.
+     */
+    public boolean isGameOver()
+    {
+        return isGameOver;
+    }
+
+    /**
+     * @return seed every random decision is derived from.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return tunables of the alien waves.
+     */
+    public WaveConfiguration getWaveConfig()
+    {
+        return waveConfig;
+    }
+
+    /**
+     * @return TRUE if the screen is touched during the coming step.
+     */
+    public boolean isTouched()
+    {
+        return touched;
+    }
+
+    /**
+     * @return X position of the touch during the coming step, in world coordinates.
+     */
+    public float getTouchX()
+    {
+        return touchX;
+    }
+
+    /**
+     * @return the player's spaceship.
+     */
+    public AnimatedSprite getPlayer()
+    {
+        return spaceshipAnimated;
+    }
+
+    /**
+     * @return the waves of alien spaceships.
+     */
+    public EnemyWaves getEnemyWaves()
+    {
+        return enemyWaves;
+    }
+
+    /**
+     * @return the object which handles every shot in the world.
+     */
+    public ShotManager getShotManager()
+    {
+        return shotManager;
+    }
+
+    /**
+     * @return the object which detects hits, and counts them.
+     */
+    public CollisionManager getCollisionManager()
+    {
+        return collisionManager;
+    }
+
+    /**
+     * @return the fragments of ships and shots which were hit, or null if hits aren't shown.
+     */
+    public ParticleSystem getParticleSystem()
+    {
+        return particles;
+    }
+
+    /**
+     * Number of bytes writeState() writes for the world's own fields: the game-over flag, the touched flag and the
+     *  touch position.
+     */
+    private static final int OWN_STATE_SIZE = 1 + 1 + 4;
+
+    /**
+     * @return number of bytes writeState() would write now. Grows with the number of shots in flight.
+     */
+    public int getStateSize()
+    {
+        return OWN_STATE_SIZE + AnimatedSprite.STATE_SIZE + enemyWaves.getStateSize() + shotManager.getStateSize()
+            + CollisionManager.STATE_SIZE;
+    }
+
+    /**
+     * Write the complete state of the simulation, so readState() can bring this world back to it. Seed, tunables,
+     *  particles and profiling hooks aren't part of the state; a snapshot may only be read back into the world which
+     *  wrote it.
+     * @param buffer Destination, with at least getStateSize() bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        buffer.put((byte) (isGameOver ? 1 : 0)).put((byte) (touched ? 1 : 0)).putFloat(touchX);
+        spaceshipAnimated.writeState(buffer);
+        enemyWaves.writeState(buffer);
+        shotManager.writeState(buffer);
+        collisionManager.writeState(buffer);
+    }
+
+    /**
+     * Restore the state written by writeState(). Allocates nothing, unless more shots were in flight at the time of
+     *  the snapshot than ever since. Particles are removed, as they belonged to the hits being undone.
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        isGameOver = buffer.get() != 0;
+        touched    = buffer.get() != 0;
+        touchX     = buffer.getFloat();
+        spaceshipAnimated.readState(buffer);
+        enemyWaves.readState(buffer);
+        shotManager.readState(buffer);
+        collisionManager.readState(buffer);
+        if (particles != null) {
+            particles.clear();
+        }
+    }
+
+    /**
+     * If the screen is touched, move the ship to the left or right, towards the touch. Also fires ship's weapons.
+     */
+    private void handleInput()
+    {
+        if (touched) {
+
+            // If game is over, touch the screen to restart.
+            if (isGameOver) {
+                spaceshipAnimated.setDead(false);
+                isGameOver = false;
+            }
+
+            // If the position of the X touch input is beyond the spaceship's X position, then the ship should move
+            //  to the right. Otherwise, it should move to the left.
+            if (touchX > spaceshipAnimated.getX()) {
+                spaceshipAnimated.moveRight();
+            } else {
+                spaceshipAnimated.moveLeft();
+            }
+
+            // Handle firing weapons.
+            shotManager.firePlayerShot(spaceshipAnimated.getX());
+        }
+    }
+
+    /**
+     * Notify the phase listener, if any, that a phase is starting.
+     */
+    private void phaseStarted(FramePhase phase)
+    {
+        if (phaseListener != null) {
+            phaseListener.phaseStarted(phase);
+        }
+    }
+
+    /**
+     * Notify the phase listener, if any, that a phase has ended.
+     */
+    private void phaseEnded(FramePhase phase)
+    {
+        if (phaseListener != null) {
+            phaseListener.phaseEnded(phase);
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.InputAdapter;
+import com.badlogic.gdx.utils.TimeUtils;
+
+/**
+ * Collects touch events as they arrive, with the time each happened, and hands them to the simulation at the start of
+ *  each step. Unlike polling Gdx.input once per frame, a touch which goes down and up between two steps is still seen:
+ *  the step after it plays as touched, at the position of the release. The first pointer steers; the others only
+ *  count towards the number of fingers of a touch, which is known once every finger has lifted, so multi-finger taps
+ *  are seen however quickly they happen.
+ *
+ * Events are kept in preallocated arrays, used as a ring. The backends deliver events on the render thread, right
+ *  before render(), so no locking is needed. A step only needs the last position of a drag, so consecutive drags of
+ *  the same pointer are merged into one, keeping the time of the first. Presses and releases are never merged; if the
+ *  queue is full of them, new events are dropped.
+ *
+ * The time of the oldest event applied since the last frame was drawn is kept, so the caller can measure the latency
+ *  from input to display.
+ */
+public class InputEventQueue extends InputAdapter
+{
+    /**
+     * Maximum number of events kept between two steps.
+     */
+    private static final int CAPACITY = 64;
+
+    /**
+     * Number of pointers tracked. Events of further pointers are ignored.
+     */
+    private static final int MAX_POINTERS = 20;
+
+    /**
+     * Maximum age of an event time given by the backend, in nanoseconds, for it to be trusted. See eventTime().
+     */
+    private static final long MAX_EVENT_AGE = 1000000000L;
+
+    /**
+     * Kinds of events.
+     */
+    private static final byte DOWN    = 0;
+    private static final byte DRAGGED = 1;
+    private static final byte UP      = 2;
+
+    /**
+     * Kind, pointer, screen position and time, in nanoseconds, of each queued event.
+     */
+    private final byte[] types    = new byte[CAPACITY];
+    private final byte[] pointers = new byte[CAPACITY];
+    private final int[] screenX   = new int[CAPACITY];
+    private final int[] screenY   = new int[CAPACITY];
+    private final long[] times    = new long[CAPACITY];
+
+    /**
+     * Index of the oldest queued event, and number of queued events.
+     */
+    private int head  = 0;
+    private int count = 0;
+
+    /**
+     * Number of events dropped because the queue was full.
+     */
+    private int dropped = 0;
+
+    /**
+     * State after the events drained so far: is the first pointer down, and where it was last seen, in screen
+     *  coordinates.
+     */
+    private boolean down = false;
+    private int x        = 0;
+    private int y        = 0;
+
+    /**
+     * Did the first pointer go down during the last drain, even if it went up again.
+     */
+    private boolean pressed = false;
+
+    /**
+     * Is each pointer down after the events drained so far, and how many are.
+     */
+    private final boolean[] pointerDown = new boolean[MAX_POINTERS];
+    private int fingers                 = 0;
+
+    /**
+     * Most pointers down at once since the current touch began, i.e. since no pointer was down.
+     */
+    private int touchFingers = 0;
+
+    /**
+     * Most pointers down at once during the touch which ended during the last drain, or 0 if none ended.
+     */
+    private int releasedFingers = 0;
+
+    /**
+     * Time of the oldest event drained since takeUndisplayedEventTime() was last called, or 0 if there is none.
+     */
+    private long undisplayedEventTime = 0;
+
+    @Override
+    public boolean touchDown(int screenX, int screenY, int pointer, int button)
+    {
+        return pointer < MAX_POINTERS && add(DOWN, pointer, screenX, screenY);
+    }
+
+    @Override
+    public boolean touchDragged(int screenX, int screenY, int pointer)
+    {
+        return pointer < MAX_POINTERS && add(DRAGGED, pointer, screenX, screenY);
+    }
+
+    @Override
+    public boolean touchUp(int screenX, int screenY, int pointer, int button)
+    {
+        return pointer < MAX_POINTERS && add(UP, pointer, screenX, screenY);
+    }
+
+    /**
+     * Apply every queued event, in order, to the touch state. Call it at the start of each step.
+     */
+    public void drain()
+    {
+        pressed         = false;
+        releasedFingers = 0;
+
+        for (; count > 0; count--) {
+            int pointer = pointers[head];
+            if (types[head] == DOWN) {
+                press(pointer);
+            } else if (types[head] == UP) {
+                release(pointer);
+            }
+            if (pointer == 0) {
+                x = screenX[head];
+                y = screenY[head];
+            }
+
+            if (undisplayedEventTime == 0) {
+                undisplayedEventTime = times[head];
+            }
+            head = (head + 1) % CAPACITY;
+        }
+    }
+
+    /**
+     * Forget every queued event, e.g. input given while loading, as if it had been applied by a step which ignored it.
+     *  Pointers held down stay down, and steer the steps after it.
+     */
+    public void clear()
+    {
+        drain();
+        pressed              = false;
+        releasedFingers      = 0;
+        undisplayedEventTime = 0;
+    }
+
+    /**
+     * @return TRUE if the first pointer is down, or went down since the previous drain.
+     */
+    public boolean isTouched()
+    {
+        return down || pressed;
+    }
+
+    /**
+     * @return number of fingers of the touch which ended during the last drain, i.e. the most pointers down at once
+     *  since no pointer was down, or 0 if no touch ended.
+     */
+    public int getReleasedFingers()
+    {
+        return releasedFingers;
+    }
+
+    /**
+     * @return X position of the first pointer as last seen, in screen coordinates.
+     */
+    public int getScreenX()
+    {
+        return x;
+    }
+
+    /**
+     * @return Y position of the first pointer as last seen, in screen coordinates, from the top of the screen.
+     */
+    public int getScreenY()
+    {
+        return y;
+    }
+
+    /**
+     * @return number of events dropped because the queue was full.
+     */
+    public int getDropped()
+    {
+        return dropped;
+    }
+
+    /**
+     * Take the time of the oldest event drained since the last call. Call it once a frame has been drawn.
+     * @return time of the event, in nanoseconds as given by TimeUtils.nanoTime(), or 0 if no event was drained.
+     */
+    public long takeUndisplayedEventTime()
+    {
+        long time            = undisplayedEventTime;
+        undisplayedEventTime = 0;
+
+        return time;
+    }
+
+    /**
+     * @return time the backend received the event being delivered, in nanoseconds as given by TimeUtils.nanoTime().
+     *  Android stamps events with that clock when they arrive, before they wait for the render thread. Other backends
+     *  may use another clock, in which case the time of delivery is used instead.
+     */
+    private static long eventTime()
+    {
+        long now  = TimeUtils.nanoTime();
+        long time = Gdx.input.getCurrentEventTime();
+
+        return time <= now && now - time < MAX_EVENT_AGE ? time : now;
+    }
+
+    /**
+     * Mark a pointer as down.
+     */
+    private void press(int pointer)
+    {
+        if (pointerDown[pointer]) {
+            return;
+        }
+
+        pointerDown[pointer] = true;
+        fingers++;
+        touchFingers = Math.max(touchFingers, fingers);
+        if (pointer == 0) {
+            down    = true;
+            pressed = true;
+        }
+    }
+
+    /**
+     * Mark a pointer as up, ending the touch once no pointer is down.
+     */
+    private void release(int pointer)
+    {
+        if (!pointerDown[pointer]) {
+            return;
+        }
+
+        pointerDown[pointer] = false;
+        fingers--;
+        if (fingers == 0) {
+            releasedFingers = touchFingers;
+            touchFingers    = 0;
+        }
+        if (pointer == 0) {
+            down = false;
+        }
+    }
+
+    /**
+     * Queue an event, with the time the backend received it.
+     */
+    private boolean add(byte type, int pointer, int eventX, int eventY)
+    {
+        int last = (head + count - 1) % CAPACITY;
+        if (type == DRAGGED && count > 0 && types[last] == DRAGGED && pointers[last] == pointer) {
+            screenX[last] = eventX;
+            screenY[last] = eventY;
+            return true;
+        }
+        if (count == CAPACITY) {
+            dropped++;
+            return true;
+        }
+
+        int index      = (head + count) % CAPACITY;
+        types[index]    = type;
+        pointers[index] = (byte) pointer;
+        screenX[index]  = eventX;
+        screenY[index]  = eventY;
+        times[index]    = eventTime();
+        count++;
+
+        return true;
+    }
+}
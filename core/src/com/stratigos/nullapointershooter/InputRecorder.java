@@ -0,0 +1,158 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * Writes the input applied to a GameWorld at every tick to a compact binary file, along with the world's RNG seed and
+ *  wave tunables, so InputReplay can reproduce the session exactly.
+ *
+ * File format, big-endian: the int MAGIC, a byte VERSION, the long seed, the wave tunables (see writeWaves()), then
+ *  runs of identical ticks until the end of the file. A run is its length in ticks as an unsigned variable-length int
+ *  (7 bits per byte, low bits first, high bit set on every byte but the last), a byte which is 1 if the screen was
+ *  touched, and the float touch X if it was. Ticks without touch all compare equal, so idle stretches take a few bytes.
+ */
+public class InputRecorder
+{
+    /**
+     * First four bytes of a recording: "NPSR".
+     */
+    static final int MAGIC = 0x4E505352;
+
+    /**
+     * Version of the file format, bumped when the format or the simulation changes incompatibly.
+     */
+    static final int VERSION = 4;
+
+    /**
+     * Destination of the recording.
+     */
+    private final DataOutputStream out;
+
+    /**
+     * Input of the run being collected.
+     */
+    private boolean runTouched;
+    private float runTouchX;
+
+    /**
+     * Number of ticks in the run being collected.
+     */
+    private int runLength = 0;
+
+    /**
+     * Start a recording, replacing the contents of a file.
+     * @param file Destination of the recording.
+     * @param seed Seed the recorded world's RNG was created with.
+     * @param waves Tunables of the recorded world's alien waves.
+     */
+    public InputRecorder(FileHandle file, long seed, WaveConfiguration waves)
+    {
+        out = new DataOutputStream(new BufferedOutputStream(file.write(false)));
+
+        try {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeLong(seed);
+            writeWaves(waves);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write input recording: " + file, e);
+        }
+    }
+
+    /**
+     * Record the input applied to the world for one tick.
+     * @param touched TRUE if the screen is touched.
+     * @param touchX X position of the touch, in world coordinates. Ignored if not touched.
+     */
+    public void record(boolean touched, float touchX)
+    {
+        // The world ignores the position when not touched, so don't let it break up a run.
+        if (!touched) {
+            touchX = 0f;
+        }
+
+        if (runLength > 0 && touched == runTouched
+            && Float.floatToRawIntBits(touchX) == Float.floatToRawIntBits(runTouchX)) {
+            runLength++;
+            return;
+        }
+
+        writeRun();
+        runTouched = touched;
+        runTouchX  = touchX;
+        runLength  = 1;
+    }
+
+    /**
+     * Write the last run, and close the file.
+     */
+    public void close()
+    {
+        writeRun();
+
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close input recording", e);
+        }
+    }
+
+    /**
+     * Write the run collected so far, if any.
+     */
+    private void writeRun()
+    {
+        if (runLength == 0) {
+            return;
+        }
+
+        try {
+            int length = runLength;
+            while (length >= 0x80) {
+                out.writeByte((length & 0x7F) | 0x80);
+                length >>>= 7;
+            }
+            out.writeByte(length);
+
+            out.writeBoolean(runTouched);
+            if (runTouched) {
+                out.writeFloat(runTouchX);
+            }
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write input recording", e);
+        }
+
+        runLength = 0;
+    }
+
+    /**
+     * Write every wave tunable, in declaration order. InputReplay.readWaves() reads them back in the same order.
+     */
+    private void writeWaves(WaveConfiguration waves) throws IOException
+    {
+        out.writeInt(waves.firstWaveEnemies);
+        out.writeInt(waves.enemiesPerWave);
+        out.writeInt(waves.maxEnemies);
+        out.writeFloat(waves.timeBetweenWaves);
+        out.writeFloat(waves.respawnDelay);
+        out.writeFloat(waves.spawnBandHeight);
+        out.writeFloat(waves.fireRate);
+        out.writeByte(waves.shotPattern.ordinal());
+        out.writeInt(waves.shotsPerPattern);
+        out.writeFloat(waves.spreadAngle);
+        out.writeFloat(waves.shotSpeed);
+        out.writeFloat(waves.enemySpeed);
+        out.writeInt(waves.directionChangeOdds);
+        out.writeFloat(waves.decisionRate);
+        out.writeFloat(waves.offFocusDecisionRate);
+        out.writeFloat(waves.focusDistance);
+        out.writeInt(waves.decisionsPerStep);
+        out.writeFloat(waves.playerShotInterval);
+        out.writeBoolean(waves.invinciblePlayer);
+    }
+}
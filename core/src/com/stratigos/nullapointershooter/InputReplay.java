@@ -0,0 +1,182 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+
+/**
+ * Reads a recording written by InputRecorder, and feeds its input to a GameWorld one tick at a time. A world created
+ *  with the recording's seed and wave tunables, and fed this input, goes through exactly the same states as the
+ *  recorded one.
+ */
+public class InputReplay
+{
+    /**
+     * Source of the recording.
+     */
+    private final DataInputStream in;
+
+    /**
+     * Seed the recorded world's RNG was created with.
+     */
+    private final long seed;
+
+    /**
+     * Tunables of the recorded world's alien waves.
+     */
+    private final WaveConfiguration waves;
+
+    /**
+     * Input of the current run.
+     */
+    private boolean runTouched;
+    private float runTouchX;
+
+    /**
+     * Number of ticks left in the current run.
+     */
+    private int runRemaining = 0;
+
+    /**
+     * Has the end of the recording been reached.
+     */
+    private boolean finished = false;
+
+    /**
+     * Open a recording, and read its header.
+     * @param file Recording written by InputRecorder.
+     */
+    public InputReplay(FileHandle file)
+    {
+        in = new DataInputStream(new BufferedInputStream(file.read()));
+
+        try {
+            if (in.readInt() != InputRecorder.MAGIC) {
+                throw new GdxRuntimeException("Not an input recording: " + file);
+            }
+            int version = in.readUnsignedByte();
+            if (version != InputRecorder.VERSION) {
+                throw new GdxRuntimeException("Unsupported input recording version " + version + ": " + file);
+            }
+
+            seed  = in.readLong();
+            waves = readWaves();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read input recording: " + file, e);
+        }
+    }
+
+    /**
+     * @return TRUE if the recording has input for another tick.
+     */
+    public boolean hasNext()
+    {
+        if (runRemaining == 0 && !finished) {
+            readRun();
+        }
+
+        return runRemaining > 0;
+    }
+
+    /**
+     * Set the world's input for its next tick, from the recording. Call hasNext() first.
+     * @param world World to set the input of, before its next step.
+     */
+    public void apply(GameWorld world)
+    {
+        if (!hasNext()) {
+            throw new IllegalStateException("The input recording has ended.");
+        }
+
+        world.setInput(runTouched, runTouchX);
+        runRemaining--;
+    }
+
+    /**
+     * @return seed the recorded world's RNG was created with.
+     */
+    public long getSeed()
+    {
+        return seed;
+    }
+
+    /**
+     * @return tunables of the recorded world's alien waves.
+     */
+    public WaveConfiguration getWaves()
+    {
+        return waves;
+    }
+
+    /**
+     * Close the file.
+     */
+    public void close()
+    {
+        try {
+            in.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close input recording", e);
+        }
+    }
+
+    /**
+     * Read the next run, or mark the recording as finished at the end of the file.
+     */
+    private void readRun()
+    {
+        try {
+            int length = 0;
+            int shift  = 0;
+            int b      = in.read();
+            if (b < 0) {
+                finished = true;
+                return;
+            }
+            while ((b & 0x80) != 0) {
+                length |= (b & 0x7F) << shift;
+                shift  += 7;
+                b       = in.readUnsignedByte();
+            }
+            length |= b << shift;
+
+            runTouched   = in.readBoolean();
+            runTouchX    = runTouched ? in.readFloat() : 0f;
+            runRemaining = length;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't read input recording", e);
+        }
+    }
+
+    /**
+     * Read every wave tunable, in the order InputRecorder.writeWaves() wrote them.
+     */
+    private WaveConfiguration readWaves() throws IOException
+    {
+        WaveConfiguration config    = new WaveConfiguration();
+        config.firstWaveEnemies     = in.readInt();
+        config.enemiesPerWave       = in.readInt();
+        config.maxEnemies           = in.readInt();
+        config.timeBetweenWaves     = in.readFloat();
+        config.respawnDelay         = in.readFloat();
+        config.spawnBandHeight      = in.readFloat();
+        config.fireRate             = in.readFloat();
+        config.shotPattern          = ShotPattern.values()[in.readUnsignedByte()];
+        config.shotsPerPattern      = in.readInt();
+        config.spreadAngle          = in.readFloat();
+        config.shotSpeed            = in.readFloat();
+        config.enemySpeed           = in.readFloat();
+        config.directionChangeOdds  = in.readInt();
+        config.decisionRate         = in.readFloat();
+        config.offFocusDecisionRate = in.readFloat();
+        config.focusDistance        = in.readFloat();
+        config.decisionsPerStep     = in.readInt();
+        config.playerShotInterval   = in.readFloat();
+        config.invinciblePlayer     = in.readBoolean();
+
+        return config;
+    }
+}
@@ -0,0 +1,229 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+
+/**
+ * Spreads a RangeTask over a fixed set of worker threads and the calling thread, and returns once every chunk is done.
+ *  Ranges shorter than a threshold run on the calling thread alone, since waking the workers costs more than it saves
+ *  for a few hundred objects.
+ *
+ * Fork/join pools need Java 7, and a new CountDownLatch or Future per step would allocate on every tick, so the
+ *  workers are plain daemon threads handed work through wait() and notifyAll() on a single lock. Handing a range over
+ *  allocates nothing, and the lock makes everything written by the workers visible to the caller once run() returns.
+ */
+public class ParallelUpdater
+{
+    /**
+     * Minimum length of a range to split it among the threads, unless configured otherwise.
+     */
+    public static final int DEFAULT_THRESHOLD = 1024;
+
+    /**
+     * Number of chunks each thread gets on average, so a thread which finishes early can take on more work.
+     */
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Guards every field below, and is waited on by idle workers and by the caller of run().
+     */
+    private final Object lock = new Object();
+
+    /**
+     * Threads which help the caller of run(). The caller runs chunks too, so there is one worker less than threads.
+     */
+    private final Thread[] workers;
+
+    /**
+     * Minimum length of a range to split it among the threads.
+     */
+    private final int threshold;
+
+    /**
+     * Task being run, the length of its range, and the number of chunks it is split into.
+     */
+    private RangeTask task;
+    private int count;
+    private int chunks;
+
+    /**
+     * Index of the next chunk to hand out, and the number of chunks which haven't finished yet.
+     */
+    private int nextChunk;
+    private int pendingChunks;
+
+    /**
+     * Incremented each time a task is handed to the workers, so they can tell new work from a spurious wake up.
+     */
+    private long generation = 0;
+
+    /**
+     * First error thrown by a chunk of the current task, rethrown to the caller of run().
+     */
+    private Throwable failure;
+
+    /**
+     * Have the workers been told to stop.
+     */
+    private boolean disposed = false;
+
+    /**
+     * Start the worker threads.
+     * @param threads Number of threads to split work among, including the calling thread. With 1, every task runs
+     *  on the calling thread.
+     * @param threshold Minimum length of a range to split it among the threads.
+     */
+    public ParallelUpdater(int threads, int threshold)
+    {
+        this.threshold = threshold;
+
+        workers = new Thread[Math.max(threads, 1) - 1];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(new Runnable()
+            {
+                @Override
+                public void run()
+                {
+                    work();
+                }
+            }, "ParallelUpdater-" + (i + 1));
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * Run a task over a range of indices, and wait for it to finish.
+     * @param count Length of the range, starting at index 0.
+     * @param task Task to run over the range.
+     */
+    public void run(int count, RangeTask task)
+    {
+        if (workers.length == 0 || count < threshold) {
+            task.run(0, count);
+            return;
+        }
+
+        synchronized (lock) {
+            this.task     = task;
+            this.count    = count;
+            chunks        = Math.min(count, (workers.length + 1) * CHUNKS_PER_THREAD);
+            nextChunk     = 0;
+            pendingChunks = chunks;
+            failure       = null;
+            generation++;
+            lock.notifyAll();
+        }
+
+        // Help with the chunks instead of idling, then wait for the ones still running on workers.
+        runChunks();
+
+        boolean interrupted = false;
+        synchronized (lock) {
+            while (pendingChunks > 0) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            this.task = null;
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+            if (failure != null) {
+                throw new GdxRuntimeException("Couldn't run task in parallel", failure);
+            }
+        }
+    }
+
+    /**
+     * @return number of threads work is split among, including the calling thread.
+     */
+    public int getThreads()
+    {
+        return workers.length + 1;
+    }
+
+    /**
+     * @return minimum length of a range to split it among the threads.
+     */
+    public int getThreshold()
+    {
+        return threshold;
+    }
+
+    /**
+     * Stop the worker threads once they finish their current chunk.
+     */
+    public void dispose()
+    {
+        synchronized (lock) {
+            disposed = true;
+            lock.notifyAll();
+        }
+    }
+
+    /**
+     * Main loop of a worker thread: wait for a task, help run its chunks, and repeat until disposed.
+     */
+    private void work()
+    {
+        long seenGeneration = 0;
+        while (true) {
+            synchronized (lock) {
+                while (generation == seenGeneration && !disposed) {
+                    try {
+                        lock.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (disposed) {
+                    return;
+                }
+                seenGeneration = generation;
+            }
+
+            runChunks();
+        }
+    }
+
+    /**
+     * Run chunks of the current task until none are left to hand out.
+     */
+    private void runChunks()
+    {
+        while (true) {
+            RangeTask chunkTask;
+            int from;
+            int to;
+            synchronized (lock) {
+                if (task == null || nextChunk >= chunks) {
+                    return;
+                }
+                chunkTask = task;
+                from      = (int) (((long) count * nextChunk) / chunks);
+                to        = (int) (((long) count * (nextChunk + 1)) / chunks);
+                nextChunk++;
+            }
+
+            Throwable error = null;
+            try {
+                chunkTask.run(from, to);
+            } catch (Throwable e) {
+                error = e;
+            }
+
+            synchronized (lock) {
+                if (error != null && failure == null) {
+                    failure = error;
+                }
+                pendingChunks--;
+                if (pendingChunks == 0) {
+                    lock.notifyAll();
+                }
+            }
+        }
+    }
+}
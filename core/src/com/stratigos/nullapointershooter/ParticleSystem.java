@@ -0,0 +1,277 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.RandomXS128;
+
+/**
+ * Fragments flying off ships and shots when they are hit. Each fragment is a small square cut from the first frame of
+ *  the Sprite map that was hit, so every fragment comes from the one atlas Texture, and all of them are drawn within
+ *  the SpriteBatch pass of the ships, without a flush or a Texture switch of their own.
+ *
+ * Fragments are kept as parallel primitive arrays (structure of arrays), sized once for a fixed number of particles.
+ *  New fragments are written round a ring, so once it is full each one replaces the oldest. The arrays never grow, and
+ *  updating or drawing never walks more than the capacity, however many hits a step brings.
+ *
+ * Particles are cosmetic: they draw from their own RNG, and aren't part of the state of the world, so they change
+ *  nothing in recordings, replays or snapshots.
+ */
+public class ParticleSystem
+{
+    /**
+     * Largest side of a fragment, in pixels. Smaller Sprite maps break into fragments as large as their frames allow.
+     */
+    public static final int FRAGMENT_SIZE = 8;
+
+    /**
+     * Texture every fragment is cut from. Null until a fragment has been cut from a SpriteSheet which can be drawn.
+     */
+    private Texture texture;
+
+    /**
+     * Pixel position of the left edge of each particle.
+     */
+    private final float[] x;
+
+    /**
+     * Pixel position of the bottom edge of each particle.
+     */
+    private final float[] y;
+
+    /**
+     * Left edge of each particle before the last update.
+     */
+    private final float[] previousX;
+
+    /**
+     * Bottom edge of each particle before the last update.
+     */
+    private final float[] previousY;
+
+    /**
+     * Velocity of each particle along the X axis, in pixels per second.
+     */
+    private final float[] vx;
+
+    /**
+     * Velocity of each particle along the Y axis, in pixels per second.
+     */
+    private final float[] vy;
+
+    /**
+     * Time each particle has been alive, in seconds.
+     */
+    private final float[] age;
+
+    /**
+     * Time each particle lives, in seconds. A particle whose age reaches it is dead, and its slot free.
+     */
+    private final float[] life;
+
+    /**
+     * Side of each particle's square, in pixels.
+     */
+    private final float[] size;
+
+    /**
+     * Texture coordinates of the top-left corner of each particle's fragment.
+     */
+    private final float[] u;
+    private final float[] v;
+
+    /**
+     * Number of slots written at least once. Slots beyond it have never held a particle, and are not walked.
+     */
+    private int used = 0;
+
+    /**
+     * Slot the next particle is written to. Once every slot has been used, it holds the oldest particle.
+     */
+    private int next = 0;
+
+    /**
+     * Number of particles alive after the last update.
+     */
+    private int live = 0;
+
+    /**
+     * Number of particles replaced while still alive, since the system was created.
+     */
+    private long recycled = 0;
+
+    /**
+     * Scatters the fragments. Separate from the world's RNGs, so particles don't change the simulation.
+     */
+    private final RandomXS128 random = new RandomXS128();
+
+    /**
+     * @param capacity Most particles alive at once. Further particles replace the oldest ones.
+     */
+    public ParticleSystem(int capacity)
+    {
+        x         = new float[capacity];
+        y         = new float[capacity];
+        previousX = new float[capacity];
+        previousY = new float[capacity];
+        vx        = new float[capacity];
+        vy        = new float[capacity];
+        age       = new float[capacity];
+        life      = new float[capacity];
+        size      = new float[capacity];
+        u         = new float[capacity];
+        v         = new float[capacity];
+    }
+
+    /**
+     * Break the first frame of a Sprite map into fragments which fly away from its center.
+     * @param sheet Frames of the ship or shot which was hit. Fragments of a SpriteSheet which can't be drawn are
+     *  simulated, but stay invisible.
+     * @param left Left edge of the frame, in pixels.
+     * @param bottom Bottom edge of the frame, in pixels.
+     * @param count Number of fragments.
+     * @param speed Speed of the fragments at the edge of the frame, in pixels per second.
+     * @param lifetime Longest time a fragment lives, in seconds. Each one lives between half of it and all of it.
+     */
+    public void explode(SpriteSheet sheet, float left, float bottom, int count, float speed, float lifetime)
+    {
+        int frameWidth   = sheet.getFrameWidth();
+        int frameHeight  = sheet.getFrameHeight();
+        int fragment     = Math.min(FRAGMENT_SIZE, Math.min(frameWidth, frameHeight));
+        float halfWidth  = frameWidth / 2f;
+        float halfHeight = frameHeight / 2f;
+
+        TextureRegion region = sheet.getRegion();
+        if (region != null) {
+            texture = region.getTexture();
+        }
+
+        for (int n = 0; n < count; n++) {
+            // Pick a fragment of the frame, in pixels from its top-left corner, as the frame is laid out in the atlas.
+            int fragmentX = random.nextInt(frameWidth - fragment + 1);
+            int fragmentY = random.nextInt(frameHeight - fragment + 1);
+
+            // Push it away from the center, faster the farther out it was, with some scatter.
+            float offsetX = fragmentX + fragment / 2f - halfWidth;
+            float offsetY = halfHeight - (fragmentY + fragment / 2f);
+            float scatter = 0.5f + random.nextFloat();
+
+            // Once every slot has been used, the next one holds the oldest particle, which may still be alive.
+            int i = next;
+            if (i < used) {
+                if (age[i] < life[i]) {
+                    recycled++;
+                }
+            } else {
+                used++;
+            }
+            next = (i + 1 == x.length) ? 0 : i + 1;
+
+            x[i]         = left + fragmentX;
+            y[i]         = bottom + frameHeight - fragmentY - fragment;
+            previousX[i] = x[i];
+            previousY[i] = y[i];
+            vx[i]        = offsetX / halfWidth * speed * scatter;
+            vy[i]        = offsetY / halfHeight * speed * scatter;
+            age[i]       = 0f;
+            life[i]      = lifetime * (0.5f + random.nextFloat() * 0.5f);
+            size[i]      = fragment;
+            if (region != null) {
+                u[i] = (region.getRegionX() + fragmentX) / (float) texture.getWidth();
+                v[i] = (region.getRegionY() + fragmentY) / (float) texture.getHeight();
+            }
+        }
+    }
+
+    /**
+     * Move every live particle, and age it.
+     * @param delta Seconds passed in this simulation step.
+     */
+    public void update(float delta)
+    {
+        int alive = 0;
+        for (int i = 0; i < used; i++) {
+            if (age[i] >= life[i]) {
+                continue;
+            }
+
+            previousX[i]  = x[i];
+            previousY[i]  = y[i];
+            x[i]         += vx[i] * delta;
+            y[i]         += vy[i] * delta;
+            age[i]       += delta;
+            if (age[i] < life[i]) {
+                alive++;
+            }
+        }
+        live = alive;
+    }
+
+    /**
+     * Draw every live particle between its previous and current position, shrinking and fading as it ages. The
+     *  batch's color is restored afterwards.
+     * @param batch SpriteBatch which has already begun drawing.
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
+     */
+    public void draw(SpriteBatch batch, float alpha)
+    {
+        if (texture == null) {
+            return;
+        }
+
+        float color  = batch.getPackedColor();
+        float texelU = 1f / texture.getWidth();
+        float texelV = 1f / texture.getHeight();
+        for (int i = 0; i < used; i++) {
+            if (age[i] >= life[i]) {
+                continue;
+            }
+
+            float remaining = 1f - age[i] / life[i];
+            float side      = size[i] * (0.5f + remaining * 0.5f);
+            float drawX     = previousX[i] + (x[i] - previousX[i]) * alpha + (size[i] - side) / 2f;
+            float drawY     = previousY[i] + (y[i] - previousY[i]) * alpha + (size[i] - side) / 2f;
+
+            // The fragment's bottom edge is its larger V, as atlas rows run downwards.
+            batch.setColor(1f, 1f, 1f, remaining);
+            batch.draw(texture, drawX, drawY, side, side,
+                u[i], v[i] + size[i] * texelV, u[i] + size[i] * texelU, v[i]);
+        }
+        batch.setColor(color);
+    }
+
+    /**
+     * Remove every particle.
+     */
+    public void clear()
+    {
+        for (int i = 0; i < used; i++) {
+            age[i] = life[i];
+        }
+        live = 0;
+    }
+
+    /**
+     * @return most particles alive at once.
+     */
+    public int getCapacity()
+    {
+        return x.length;
+    }
+
+    /**
+     * @return number of particles alive after the last update.
+     */
+    public int getLiveParticles()
+    {
+        return live;
+    }
+
+    /**
+     * @return number of particles replaced while still alive, for lack of room, since the system was created.
+     */
+    public long getRecycled()
+    {
+        return recycled;
+    }
+}
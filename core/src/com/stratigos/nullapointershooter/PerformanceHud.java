@@ -0,0 +1,147 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * Overlay showing the statistics collected by a PerformanceMonitor. The text is rebuilt a few times per second from the
+ *  monitor's current window, so values are readable and averaged, instead of flickering every frame.
+ */
+public class PerformanceHud
+{
+    /**
+     * Seconds between refreshes of the displayed statistics.
+     */
+    public static final float REFRESH_INTERVAL = 0.5f;
+
+    /**
+     * Pixel position of the top-left corner of the overlay.
+     */
+    private static final float LEFT = 8f;
+    private static final float TOP  = ShooterGame.SCREEN_HEIGHT - 8f;
+
+    /**
+     * Source of the displayed statistics.
+     */
+    private final PerformanceMonitor monitor;
+
+    /**
+     * Source of the displayed Sound counters.
+     */
+    private final AudioManager audio;
+
+    /**
+     * Label the overlay is drawn with. Its layout is only rebuilt when the text changes.
+     */
+    private final TextLabel label;
+
+    /**
+     * Reusable buffer to build the overlay's text in.
+     */
+    private final StringBuilder text = new StringBuilder(512);
+
+    /**
+     * Seconds since the text was last rebuilt.
+     */
+    private float timeSinceRefresh = 0f;
+
+    /**
+     * @param monitor Source of the displayed statistics.
+     * @param audio Source of the displayed Sound counters.
+     * @param label Label to draw the overlay with.
+     */
+    public PerformanceHud(PerformanceMonitor monitor, AudioManager audio, TextLabel label)
+    {
+        this.monitor = monitor;
+        this.audio   = audio;
+        this.label   = label;
+    }
+
+    /**
+     * Rebuild the text once the refresh interval has passed, and start a new window in the monitor.
+     * @param frameTime Seconds since the previous frame.
+     */
+    public void update(float frameTime)
+    {
+        timeSinceRefresh += frameTime;
+        if (timeSinceRefresh < REFRESH_INTERVAL) {
+            return;
+        }
+        timeSinceRefresh = 0f;
+
+        monitor.sortFrameTimes();
+
+        text.setLength(0);
+        text.append("frame ms  p50 ");
+        appendMillis(monitor.getFrameTimePercentile(0.5f) * 1000f);
+        text.append("  p95 ");
+        appendMillis(monitor.getFrameTimePercentile(0.95f) * 1000f);
+        text.append("  p99 ");
+        appendMillis(monitor.getFrameTimePercentile(0.99f) * 1000f);
+        text.append("  max ");
+        appendMillis(monitor.getFrameTimePercentile(1f) * 1000f);
+        text.append("  frames/s ").append(Math.round(monitor.getWindowFramesPerSecond()));
+        text.append('\n');
+
+        appendPhase("input ", FramePhase.INPUT);
+        appendPhase("  player ", FramePhase.PLAYER);
+        appendPhase("  enemies ", FramePhase.ENEMIES);
+        text.append('\n');
+        appendPhase("shots ", FramePhase.SHOTS);
+        appendPhase("  collisions ", FramePhase.COLLISIONS);
+        appendPhase("  particles ", FramePhase.PARTICLES);
+        appendPhase("  draw ", FramePhase.DRAW);
+        text.append('\n');
+
+        text.append("input latency ms  avg ");
+        appendMillis(monitor.getAverageInputLatencyMillis());
+        text.append("  max ");
+        appendMillis(monitor.getMaxInputLatencyMillis());
+        text.append('\n');
+
+        text.append("render calls ").append(monitor.getRenderCalls())
+            .append("  texture switches ").append(monitor.getTextureSwitches()).append('\n');
+        text.append("aliens ").append(monitor.getEnemies())
+            .append("  player shots ").append(monitor.getPlayerShots())
+            .append("  alien shots ").append(monitor.getEnemyShots())
+            .append("  particles ").append(monitor.getParticles()).append('\n');
+        text.append("AI decisions ").append(monitor.getWindowAiDecisions())
+            .append("  deferred ").append(monitor.getWindowAiDeferred()).append('\n');
+        text.append("sounds ").append(audio.getPlayed())
+            .append("  coalesced ").append(audio.getCoalesced())
+            .append("  dropped ").append(audio.getDropped())
+            .append("  stolen ").append(audio.getStolen()).append('\n');
+        text.append("heap ").append(monitor.getJavaHeap() / 1024L).append(" KB")
+            .append("  GCs ").append(monitor.getWindowGcCount());
+        label.setText(text);
+
+        monitor.startWindow();
+    }
+
+    /**
+     * Draw the overlay.
+     * @param batch SpriteBatch which has already begun drawing.
+     */
+    public void draw(SpriteBatch batch)
+    {
+        label.draw(batch, LEFT, TOP);
+    }
+
+    /**
+     * Append a phase's average time per frame, in milliseconds.
+     */
+    private void appendPhase(String name, FramePhase phase)
+    {
+        text.append(name);
+        appendMillis(monitor.getAveragePhaseMillis(phase));
+    }
+
+    /**
+     * Append a time in milliseconds with two decimals, without allocating a String.
+     */
+    private void appendMillis(float millis)
+    {
+        int hundredths = Math.round(millis * 100f);
+        text.append(hundredths / 100).append('.').append(hundredths % 100, 2, '0');
+    }
+}
@@ -0,0 +1,440 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Arrays;
+
+/**
+ * Collects per-frame performance samples: frame time, time spent in each FramePhase, SpriteBatch render calls and
+ *  Texture switches, live entity and particle counts, alien AI decisions, and garbage collection activity. Samples
+ *  are summed over a window, which the PerformanceHud reads and restarts periodically, and may also be streamed to a
+ *  CSV file, one row per frame, to profile on devices without attaching a profiler.
+ *
+ * Garbage collections are detected as drops in the Java heap size between frames, which works on every backend, but
+ *  misses a collection if the heap grows back within the same frame.
+ */
+public class PerformanceMonitor implements FramePhaseListener
+{
+    /**
+     * Number of frame times kept to compute percentiles.
+     */
+    public static final int FRAME_HISTORY = 300;
+
+    /**
+     * Header row of the CSV file. Times are in microseconds. on_demand is 1 for frames drawn on demand, whose frame
+     *  time is mostly time spent idle.
+     */
+    private static final String CSV_HEADER = "frame,frame_us,input_us,player_us,enemies_us,shots_us,collisions_us,"
+        + "particles_us,draw_us,render_calls,texture_switches,enemies,player_shots,enemy_shots,particles,"
+        + "ai_decisions,ai_deferred,java_heap,gcs,on_demand\n";
+
+    /**
+     * Every phase, indexed by ordinal.
+     */
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    /**
+     * Time each phase last started, in nanoseconds.
+     */
+    private final long[] phaseStartTime = new long[PHASES.length];
+
+    /**
+     * Time spent in each phase during the current frame, in nanoseconds. A frame may run several simulation steps.
+     */
+    private final long[] framePhaseNanos = new long[PHASES.length];
+
+    /**
+     * Time spent in each phase during the current window, in nanoseconds.
+     */
+    private final long[] windowPhaseNanos = new long[PHASES.length];
+
+    /**
+     * Ring of the latest frame times, in seconds, leaving out frames drawn on demand.
+     */
+    private final float[] frameTimes = new float[FRAME_HISTORY];
+
+    /**
+     * Frame times sorted by sortFrameTimes(), to read percentiles from.
+     */
+    private final float[] sortedFrameTimes = new float[FRAME_HISTORY];
+
+    /**
+     * Number of valid entries in sortedFrameTimes.
+     */
+    private int sortedCount = 0;
+
+    /**
+     * Number of frames recorded since the monitor was created.
+     */
+    private long frames = 0;
+
+    /**
+     * Number of frame times recorded since the monitor was created. Frames drawn on demand have none.
+     */
+    private long frameTimeSamples = 0;
+
+    /**
+     * Number of frames recorded in the current window.
+     */
+    private int windowFrames = 0;
+
+    /**
+     * Time the current window started, in nanoseconds.
+     */
+    private long windowStartTime = TimeUtils.nanoTime();
+
+    /**
+     * Statistics of the latest frame.
+     */
+    private int renderCalls     = 0;
+    private int textureSwitches = 0;
+    private int enemies         = 0;
+    private int playerShots     = 0;
+    private int enemyShots      = 0;
+    private int particles       = 0;
+    private long javaHeap       = 0;
+    private boolean onDemand    = false;
+
+    /**
+     * Number of alien AI decisions made, and deferred, during the latest frame, and during the current window.
+     */
+    private int frameAiDecisions   = 0;
+    private int frameAiDeferred    = 0;
+    private long windowAiDecisions = 0;
+    private long windowAiDeferred  = 0;
+
+    /**
+     * AI scheduler counters seen at the end of the previous frame.
+     */
+    private long lastAiDecisions = 0;
+    private long lastAiDeferred  = 0;
+
+    /**
+     * Sum and maximum of the input latencies recorded during the current window, in nanoseconds, and their number.
+     */
+    private long windowInputLatencyNanos = 0;
+    private long maxInputLatencyNanos    = 0;
+    private int windowInputLatencies     = 0;
+
+    /**
+     * Number of garbage collections detected since the monitor was created, and at the start of the current window.
+     */
+    private int gcCount       = 0;
+    private int windowGcStart = 0;
+
+    /**
+     * Destination of CSV samples. Null if samples aren't streamed.
+     */
+    private Writer csvWriter;
+
+    /**
+     * Reusable buffer to format a CSV row without allocating Strings.
+     */
+    private final StringBuilder csvRow = new StringBuilder(160);
+
+    /**
+     * Start streaming samples to a CSV file, replacing its contents.
+     * @param fileName Path of the file, relative to the application's local storage.
+     */
+    public void startCsv(String fileName)
+    {
+        csvWriter = new BufferedWriter(Gdx.files.local(fileName).writer(false, "UTF-8"));
+        write(CSV_HEADER);
+    }
+
+    /**
+     * Flush and close the CSV file, if any.
+     */
+    public void dispose()
+    {
+        if (csvWriter == null) {
+            return;
+        }
+
+        try {
+            csvWriter.close();
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't close performance CSV file", e);
+        }
+        csvWriter = null;
+    }
+
+    @Override
+    public void phaseStarted(FramePhase phase)
+    {
+        phaseStartTime[phase.ordinal()] = TimeUtils.nanoTime();
+    }
+
+    @Override
+    public void phaseEnded(FramePhase phase)
+    {
+        framePhaseNanos[phase.ordinal()] += TimeUtils.nanoTime() - phaseStartTime[phase.ordinal()];
+    }
+
+    /**
+     * Record the statistics of a frame which has been simulated and drawn, and start timing the next one.
+     * @param frameTime Seconds since the previous frame.
+     * @param onDemand TRUE if the frame was drawn on demand. The time since the previous frame was then mostly spent
+     *  idle rather than hitching, so it is kept out of the frame times, and only flagged in the CSV file.
+     * @param batch SpriteBatch the scene was drawn with, after end() was called.
+     * @param world The simulation which was drawn.
+     */
+    public void endFrame(float frameTime, boolean onDemand, ProfilingSpriteBatch batch, GameWorld world)
+    {
+        if (!onDemand) {
+            frameTimes[(int) (frameTimeSamples % FRAME_HISTORY)] = frameTime;
+            frameTimeSamples++;
+        }
+        frames++;
+        windowFrames++;
+
+        this.onDemand   = onDemand;
+        renderCalls     = batch.renderCalls;
+        textureSwitches = batch.getTextureSwitches();
+        enemies         = world.getEnemyWaves().getLiveEnemies();
+        playerShots     = world.getShotManager().getPlayerShots().size();
+        enemyShots      = world.getShotManager().getEnemyShots().size();
+        particles       = world.getParticleSystem() != null ? world.getParticleSystem().getLiveParticles() : 0;
+        countAiDecisions(world.getEnemyWaves().getScheduler());
+
+        long heap = Gdx.app.getJavaHeap();
+        if (heap < javaHeap) {
+            gcCount++;
+        }
+        javaHeap = heap;
+
+        if (csvWriter != null) {
+            writeCsvRow(frameTime);
+        }
+
+        for (int i = 0; i < PHASES.length; i++) {
+            windowPhaseNanos[i] += framePhaseNanos[i];
+            framePhaseNanos[i]   = 0;
+        }
+    }
+
+    /**
+     * Record the time from an input event to the end of drawing the first frame which reflects it. The buffer swap,
+     *  and the display's own delay, come on top of it.
+     * @param nanos Latency, in nanoseconds.
+     */
+    public void recordInputLatency(long nanos)
+    {
+        windowInputLatencyNanos += nanos;
+        maxInputLatencyNanos     = Math.max(maxInputLatencyNanos, nanos);
+        windowInputLatencies++;
+    }
+
+    /**
+     * Start a new window, forgetting phase times, input latencies, AI decisions and garbage collections summed so far.
+     */
+    public void startWindow()
+    {
+        Arrays.fill(windowPhaseNanos, 0);
+        windowFrames            = 0;
+        windowStartTime         = TimeUtils.nanoTime();
+        windowInputLatencyNanos = 0;
+        maxInputLatencyNanos    = 0;
+        windowInputLatencies    = 0;
+        windowAiDecisions       = 0;
+        windowAiDeferred        = 0;
+        windowGcStart           = gcCount;
+    }
+
+    /**
+     * Sort the latest frame times, so getFrameTimePercentile() reflects them.
+     */
+    public void sortFrameTimes()
+    {
+        sortedCount = (int) Math.min(frameTimeSamples, FRAME_HISTORY);
+        System.arraycopy(frameTimes, 0, sortedFrameTimes, 0, sortedCount);
+        Arrays.sort(sortedFrameTimes, 0, sortedCount);
+    }
+
+    /**
+     * @param percentile Fraction of frames, from 0 to 1.
+     * @return frame time, in seconds, which this fraction of the frames sorted last did not exceed.
+     */
+    public float getFrameTimePercentile(float percentile)
+    {
+        if (sortedCount == 0) {
+            return 0f;
+        }
+
+        int index = (int) Math.ceil(percentile * sortedCount) - 1;
+        return sortedFrameTimes[Math.max(0, Math.min(index, sortedCount - 1))];
+    }
+
+    /**
+     * @return average time spent in a phase per frame during the current window, in milliseconds.
+     */
+    public float getAveragePhaseMillis(FramePhase phase)
+    {
+        return windowFrames > 0 ? windowPhaseNanos[phase.ordinal()] / (windowFrames * 1000000f) : 0f;
+    }
+
+    /**
+     * @return number of frames recorded per second of real time during the current window. With rendering on demand,
+     *  this is the number of times the app woke up to draw.
+     */
+    public float getWindowFramesPerSecond()
+    {
+        long nanos = TimeUtils.nanoTime() - windowStartTime;
+        return nanos > 0 ? windowFrames * 1000000000f / nanos : 0f;
+    }
+
+    /**
+     * @return average input latency recorded during the current window, in milliseconds.
+     */
+    public float getAverageInputLatencyMillis()
+    {
+        return windowInputLatencies > 0 ? windowInputLatencyNanos / (windowInputLatencies * 1000000f) : 0f;
+    }
+
+    /**
+     * @return maximum input latency recorded during the current window, in milliseconds.
+     */
+    public float getMaxInputLatencyMillis()
+    {
+        return maxInputLatencyNanos / 1000000f;
+    }
+
+    /**
+     * @return number of SpriteBatch render calls in the latest frame.
+     */
+    public int getRenderCalls()
+    {
+        return renderCalls;
+    }
+
+    /**
+     * @return number of Texture switches in the latest frame.
+     */
+    public int getTextureSwitches()
+    {
+        return textureSwitches;
+    }
+
+    /**
+     * @return number of live aliens in the latest frame.
+     */
+    public int getEnemies()
+    {
+        return enemies;
+    }
+
+    /**
+     * @return number of player shots in the latest frame.
+     */
+    public int getPlayerShots()
+    {
+        return playerShots;
+    }
+
+    /**
+     * @return number of alien shots in the latest frame.
+     */
+    public int getEnemyShots()
+    {
+        return enemyShots;
+    }
+
+    /**
+     * @return number of live particles in the latest frame.
+     */
+    public int getParticles()
+    {
+        return particles;
+    }
+
+    /**
+     * @return number of alien AI decisions made during the current window.
+     */
+    public long getWindowAiDecisions()
+    {
+        return windowAiDecisions;
+    }
+
+    /**
+     * @return number of alien AI decisions deferred to a later step during the current window.
+     */
+    public long getWindowAiDeferred()
+    {
+        return windowAiDeferred;
+    }
+
+    /**
+     * @return size of the Java heap in the latest frame, in bytes.
+     */
+    public long getJavaHeap()
+    {
+        return javaHeap;
+    }
+
+    /**
+     * @return number of garbage collections detected during the current window.
+     */
+    public int getWindowGcCount()
+    {
+        return gcCount - windowGcStart;
+    }
+
+    /**
+     * Count the AI decisions made and deferred since the previous frame. The scheduler's counters go back when the
+     *  world is restarted or rewound; such a frame counts nothing.
+     */
+    private void countAiDecisions(AiScheduler scheduler)
+    {
+        long decisions = scheduler.getDecisions();
+        long deferred  = scheduler.getDeferred();
+
+        frameAiDecisions   = (int) Math.max(0L, decisions - lastAiDecisions);
+        frameAiDeferred    = (int) Math.max(0L, deferred - lastAiDeferred);
+        windowAiDecisions += frameAiDecisions;
+        windowAiDeferred  += frameAiDeferred;
+        lastAiDecisions    = decisions;
+        lastAiDeferred     = deferred;
+    }
+
+    /**
+     * Append the latest frame to the CSV file.
+     */
+    private void writeCsvRow(float frameTime)
+    {
+        csvRow.setLength(0);
+        csvRow.append(frames).append(',').append((int) (frameTime * 1000000f));
+        for (int i = 0; i < PHASES.length; i++) {
+            csvRow.append(',').append(framePhaseNanos[i] / 1000L);
+        }
+        csvRow.append(',').append(renderCalls).append(',').append(textureSwitches)
+            .append(',').append(enemies).append(',').append(playerShots).append(',').append(enemyShots)
+            .append(',').append(particles)
+            .append(',').append(frameAiDecisions).append(',').append(frameAiDeferred)
+            .append(',').append(javaHeap).append(',').append(gcCount)
+            .append(',').append(onDemand ? 1 : 0).append('\n');
+
+        try {
+            csvWriter.write(csvRow.chars, 0, csvRow.length);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write performance CSV file", e);
+        }
+    }
+
+    /**
+     * Write text to the CSV file.
+     */
+    private void write(String text)
+    {
+        try {
+            csvWriter.write(text);
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Couldn't write performance CSV file", e);
+        }
+    }
+}
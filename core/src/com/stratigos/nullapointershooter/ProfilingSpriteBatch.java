@@ -0,0 +1,66 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+/**
+ * SpriteBatch which also counts Texture switches. Each switch flushes the batch, so together with renderCalls it shows
+ *  why a frame needed more than one draw call. Flushes may also be reported to a GameEventListener.
+ */
+public class ProfilingSpriteBatch extends SpriteBatch
+{
+    /**
+     * Number of times a different Texture was bound since the last call to begin().
+     */
+    private int textureSwitches = 0;
+
+    /**
+     * Notified around each flush. Null if nothing is listening.
+     */
+    private GameEventListener eventListener;
+
+    @Override
+    public void begin()
+    {
+        super.begin();
+        textureSwitches = 0;
+    }
+
+    @Override
+    protected void switchTexture(Texture texture)
+    {
+        super.switchTexture(texture);
+        textureSwitches++;
+    }
+
+    @Override
+    public void flush()
+    {
+        if (eventListener == null) {
+            super.flush();
+            return;
+        }
+
+        int calls = renderCalls;
+        eventListener.batchFlushStarted();
+        super.flush();
+        eventListener.batchFlushEnded(renderCalls != calls, renderCalls, textureSwitches);
+    }
+
+    /**
+     * Set the listener notified around each flush.
+     * @param eventListener Listener, or null to stop notifying.
+     */
+    public void setEventListener(GameEventListener eventListener)
+    {
+        this.eventListener = eventListener;
+    }
+
+    /**
+     * @return number of Texture switches since the last call to begin(), including the first Texture bound.
+     */
+    public int getTextureSwitches()
+    {
+        return textureSwitches;
+    }
+}
@@ -0,0 +1,364 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Storage for many projectiles of the same kind, kept as parallel primitive arrays (structure of arrays) instead of a
+ *  List of AnimatedSprites. Projectile i is described by x[i], y[i], vx[i], vy[i] and stateTime[i]; live projectiles
+ *  always occupy indices 0 to size - 1, and removal swaps the last projectile into the freed slot, so every pass over
+ *  the store is a linear walk over contiguous memory. Positions before the last update are kept as well, to
+ *  interpolate drawing between simulation steps.
+ */
+public class ProjectileStore
+{
+    /**
+     * Frames shared by every projectile in this store. Also defines the size of each projectile's bounding box.
+     */
+    private final SpriteSheet sheet;
+
+    /**
+     * Pixel position of the left edge of each projectile.
+     */
+    private float[] x;
+
+    /**
+     * Pixel position of the bottom edge of each projectile.
+     */
+    private float[] y;
+
+    /**
+     * Left edge of each projectile before the last update.
+     */
+    private float[] previousX;
+
+    /**
+     * Bottom edge of each projectile before the last update.
+     */
+    private float[] previousY;
+
+    /**
+     * Velocity of each projectile along the X axis, in pixels per second.
+     */
+    private float[] vx;
+
+    /**
+     * Velocity of each projectile along the Y axis, in pixels per second.
+     */
+    private float[] vy;
+
+    /**
+     * Time each projectile has been alive. Helps track frame to be displayed.
+     */
+    private float[] stateTime;
+
+    /**
+     * Number of live projectiles.
+     */
+    private int size;
+
+    /**
+     * Length of the step being run by moveTask.
+     */
+    private float stepDelta;
+
+    /**
+     * Moves a range of projectiles by stepDelta, for update(delta, updater). Every projectile only touches its own
+     *  slots, so ranges may move on different threads.
+     */
+    private final RangeTask moveTask = new RangeTask()
+    {
+        @Override
+        public void run(int from, int to)
+        {
+            move(stepDelta, from, to);
+        }
+    };
+
+    /**
+     * @param sheet Shared frames of the projectile Sprite map.
+     * @param initialCapacity Number of projectiles which can be stored before the arrays need to grow.
+     */
+    public ProjectileStore(SpriteSheet sheet, int initialCapacity)
+    {
+        this.sheet = sheet;
+
+        x         = new float[initialCapacity];
+        y         = new float[initialCapacity];
+        previousX = new float[initialCapacity];
+        previousY = new float[initialCapacity];
+        vx        = new float[initialCapacity];
+        vy        = new float[initialCapacity];
+        stateTime = new float[initialCapacity];
+    }
+
+    /**
+     * Add a projectile to the store.
+     * @param centerX float Center of the projectile.
+     * @param bottomY float Bottom of the projectile.
+     * @param velocityX float Velocity along the X axis, in pixels per second.
+     * @param velocityY float Velocity along the Y axis, in pixels per second.
+     */
+    public void add(float centerX, float bottomY, float velocityX, float velocityY)
+    {
+        if (size == x.length) {
+            resize(Math.max(8, (int) (size * 1.75f)));
+        }
+
+        x[size]         = centerX - (sheet.getFrameWidth() / 2f);
+        y[size]         = bottomY;
+        previousX[size] = x[size];
+        previousY[size] = bottomY;
+        vx[size]        = velocityX;
+        vy[size]        = velocityY;
+        stateTime[size] = 0f;
+        size++;
+    }
+
+    /**
+     * Remove a projectile by moving the last projectile into its slot. Indices of other projectiles, except the last
+     *  one, are unaffected, so callers walking the store backwards may remove as they go.
+     * @param index Index of the projectile to remove.
+     */
+    public void remove(int index)
+    {
+        int last = --size;
+
+        x[index]         = x[last];
+        y[index]         = y[last];
+        previousX[index] = previousX[last];
+        previousY[index] = previousY[last];
+        vx[index]        = vx[last];
+        vy[index]        = vy[last];
+        stateTime[index] = stateTime[last];
+    }
+
+    /**
+     * Remove every projectile.
+     */
+    public void clear()
+    {
+        size = 0;
+    }
+
+    /**
+     * Move every projectile based on its velocity and the time passed, and advance its animation.
+     * @param delta Seconds passed in this simulation step.
+     */
+    public void update(float delta)
+    {
+        move(delta, 0, size);
+    }
+
+    /**
+     * Move every projectile based on its velocity and the time passed, and advance its animation, splitting the
+     *  projectiles among the updater's threads if there are enough of them. The result is the same as update(delta).
+     * @param delta Seconds passed in this simulation step.
+     * @param updater Threads to split the projectiles among.
+     */
+    public void update(float delta, ParallelUpdater updater)
+    {
+        stepDelta = delta;
+        updater.run(size, moveTask);
+    }
+
+    /**
+     * Move a range of projectiles, and advance their animation.
+     * @param delta Seconds passed in this simulation step.
+     * @param from Index of the first projectile to move.
+     * @param to Index after the last projectile to move.
+     */
+    private void move(float delta, int from, int to)
+    {
+        for (int i = from; i < to; i++) {
+            previousX[i]  = x[i];
+            previousY[i]  = y[i];
+            x[i]         += vx[i] * delta;
+            y[i]         += vy[i] * delta;
+            stateTime[i] += delta;
+        }
+    }
+
+    /**
+     * Remove every projectile whose bottom edge has left a band of the screen.
+     * @param minY Projectiles below this pixel row are removed.
+     * @param maxY Projectiles above this pixel row are removed.
+     */
+    public void cull(float minY, float maxY)
+    {
+        // Walk backwards, so the projectile swapped into a removed slot has already been checked.
+        for (int i = size - 1; i >= 0; i--) {
+            if (y[i] < minY || y[i] > maxY) {
+                remove(i);
+            }
+        }
+    }
+
+    /**
+     * Remove every projectile whose bottom-left corner has left an area of the screen.
+     * @param minX Projectiles left of this pixel column are removed.
+     * @param maxX Projectiles right of this pixel column are removed.
+     * @param minY Projectiles below this pixel row are removed.
+     * @param maxY Projectiles above this pixel row are removed.
+     */
+    public void cull(float minX, float maxX, float minY, float maxY)
+    {
+        // Walk backwards, so the projectile swapped into a removed slot has already been checked.
+        for (int i = size - 1; i >= 0; i--) {
+            if (x[i] < minX || x[i] > maxX || y[i] < minY || y[i] > maxY) {
+                remove(i);
+            }
+        }
+    }
+
+    /**
+     * Draw the current frame of every projectile, between its previous and current position.
+     * @param batch reference to the game's SpriteBatch instance.
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
+     */
+    public void draw(SpriteBatch batch, float alpha)
+    {
+        for (int i = 0; i < size; i++) {
+            float drawX = previousX[i] + (x[i] - previousX[i]) * alpha;
+            float drawY = previousY[i] + (y[i] - previousY[i]) * alpha;
+
+            batch.draw(sheet.getKeyFrame(stateTime[i]), drawX, drawY);
+        }
+    }
+
+    /**
+     * @return number of live projectiles.
+     */
+    public int size()
+    {
+        return size;
+    }
+
+    /**
+     * @return frames shared by every projectile in this store.
+     */
+    public SpriteSheet getSheet()
+    {
+        return sheet;
+    }
+
+    /**
+     * @return width of each projectile's bounding box, in pixels.
+     */
+    public int getWidth()
+    {
+        return sheet.getFrameWidth();
+    }
+
+    /**
+     * @return height of each projectile's bounding box, in pixels.
+     */
+    public int getHeight()
+    {
+        return sheet.getFrameHeight();
+    }
+
+    /**
+     * @return pixel position of the left edge of a projectile.
+     */
+    public float getX(int index)
+    {
+        return x[index];
+    }
+
+    /**
+     * @return pixel position of the bottom edge of a projectile.
+     */
+    public float getY(int index)
+    {
+        return y[index];
+    }
+
+    /**
+     * @return pixel position of the left edge of a projectile before the last update.
+     */
+    public float getPreviousX(int index)
+    {
+        return previousX[index];
+    }
+
+    /**
+     * @return pixel position of the bottom edge of a projectile before the last update.
+     */
+    public float getPreviousY(int index)
+    {
+        return previousY[index];
+    }
+
+    /**
+     * @return number of bytes writeState() would write now.
+     */
+    public int getStateSize()
+    {
+        return 4 + size * 7 * 4;
+    }
+
+    /**
+     * Write every live projectile, for a snapshot of the world.
+     * @param buffer Destination, with at least getStateSize() bytes remaining.
+     */
+    public void writeState(ByteBuffer buffer)
+    {
+        buffer.putInt(size);
+        for (int i = 0; i < size; i++) {
+            buffer.putFloat(x[i]).putFloat(y[i]).putFloat(previousX[i]).putFloat(previousY[i])
+                .putFloat(vx[i]).putFloat(vy[i]).putFloat(stateTime[i]);
+        }
+    }
+
+    /**
+     * Replace every projectile with the ones written by writeState().
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        int count = buffer.getInt();
+        if (count > x.length) {
+            size = 0;
+            resize(count);
+        }
+
+        size = count;
+        for (int i = 0; i < size; i++) {
+            x[i]         = buffer.getFloat();
+            y[i]         = buffer.getFloat();
+            previousX[i] = buffer.getFloat();
+            previousY[i] = buffer.getFloat();
+            vx[i]        = buffer.getFloat();
+            vy[i]        = buffer.getFloat();
+            stateTime[i] = buffer.getFloat();
+        }
+    }
+
+    /**
+     * Grow every array to a new capacity, keeping live projectiles.
+     * @param capacity New number of slots.
+     */
+    private void resize(int capacity)
+    {
+        x         = copyOf(x, capacity);
+        y         = copyOf(y, capacity);
+        previousX = copyOf(previousX, capacity);
+        previousY = copyOf(previousY, capacity);
+        vx        = copyOf(vx, capacity);
+        vy        = copyOf(vy, capacity);
+        stateTime = copyOf(stateTime, capacity);
+    }
+
+    /**
+     * Copy the live part of an array into a new array of the given length.
+     */
+    private float[] copyOf(float[] array, int length)
+    {
+        float[] copy = new float[length];
+        System.arraycopy(array, 0, copy, 0, size);
+
+        return copy;
+    }
+}
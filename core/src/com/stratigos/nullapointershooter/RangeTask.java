@@ -0,0 +1,16 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Work over a range of indices, which ParallelUpdater may split into chunks and run on several threads at once. Every
+ *  index must be processed independently of the others, touching only state owned by that index, so the result is
+ *  the same however the range is split.
+ */
+public interface RangeTask
+{
+    /**
+     * Process a chunk of the range.
+     * @param from First index of the chunk.
+     * @param to Index after the last one of the chunk.
+     */
+    void run(int from, int to);
+}
@@ -2,14 +2,16 @@ package com.stratigos.nullapointershooter;
 
 import com.badlogic.gdx.ApplicationAdapter;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Input;
 import com.badlogic.gdx.audio.Music;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.OrthographicCamera;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.Sprite;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Vector3;
+import com.badlogic.gdx.utils.StringBuilder;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.badlogic.gdx.utils.Timer;
 
 public class ShooterGame extends ApplicationAdapter
 {
@@ -20,9 +22,32 @@ public class ShooterGame extends ApplicationAdapter
     public static final int SCREEN_HEIGHT = 480;
 
     /**
-     * State of game.
+     * Tag for log output.
      */
-    private boolean isGameOver = false;
+    private static final String TAG = "ShooterGame";
+
+    /**
+     * Maximum time, in milliseconds, spent loading assets during a frame of the loading screen.
+     */
+    private static final int LOADING_SLICE_MILLIS = 10;
+
+    /**
+     * Seconds of play undone by a rewind after the player's ship is hit.
+     */
+    private static final float REWIND_SECONDS = 3f;
+
+    /**
+     * Maximum number of plays of each shot Sound heard at once, and the length of each Sound, in seconds.
+     */
+    private static final int LASER_VOICES      = 3;
+    private static final float LASER_DURATION  = 0.4f;
+    private static final int PLASMA_VOICES     = 4;
+    private static final float PLASMA_DURATION = 1f;
+
+    /**
+     * Minimum time between two plays of the same Sound, in seconds.
+     */
+    private static final float MINIMUM_TIME_BETWEEN_SOUNDS = 0.05f;
 
     /**
      * A camera (viewpoint / perspective?).
@@ -30,48 +55,173 @@ public class ShooterGame extends ApplicationAdapter
     private OrthographicCamera camera;
 
     /**
-     * Used to draw sprites.
+     * Used to draw sprites. Also counts Texture switches for the performance overlay.
      */
-    SpriteBatch batch;
+    ProfilingSpriteBatch batch;
 
     /**
-     * A property to hold the background image of outer space.
-     *  Expects assignment of an image which is 800w x 480h, and kind of looks like outer space.
+     * Loads every asset needed to play in the background, while the loading screen is drawn.
      */
-    private Texture background;
+    private GameAssets assets;
 
     /**
-     * A property to hold the spaceship image.
-     *  Expects assignment of an image which is 120w x 120h, and looks like a badass space fighter ship.
+     * Draws the background image of outer space, without clearing the screen first. Null until assets are loaded.
+     *  Expects an image which is 800w x 480h, and kind of looks like outer space.
      */
-    private Sprite spaceshipSprite;
+    private StaticLayer backgroundLayer;
 
     /**
-     * Sprite for spaceship animations. Expects assignment of animation frames image which is 240w x 240h, and looks
-     *  like a badass space fighter ship.
+     * The game simulation: ships, shots, and collision detection. Null until assets are loaded.
      */
-    private AnimatedSprite spaceshipAnimated;
+    private GameWorld world;
 
     /**
-     * Sprite for alien spaceships.
+     * Caps and rate-limits Sound effects, which are played once per frame.
      */
-    private Enemy enemy;
+    private AudioManager audio;
 
     /**
-     * Object which handles the shooting feature of the spaceship.
+     * Snapshots of the latest steps, to rewind after the player's ship is hit. Null if disabled, while recording or
+     *  replaying, whose input would no longer match the world, and while the player is invincible.
      */
-    private ShotManager shotManager;
+    private SnapshotRing snapshots;
 
     /**
-     * Object which handles collision detection.
+     * Threads aliens and shots are moved on. Null until assets are loaded.
      */
-    private CollisionManager collisionManager;
+    private ParallelUpdater updater;
 
     /**
-     * Object which handles game background music.
+     * Writes the input of every tick to a file. Null unless recording.
+     */
+    private InputRecorder recorder;
+
+    /**
+     * Source of the input of every tick, instead of the touch screen. Null unless replaying.
+     */
+    private InputReplay replay;
+
+    /**
+     * Object which handles game background music. Null if the music file isn't bundled.
      */
     private Music gameMusic;
 
+    /**
+     * Frame clock which hands out fixed simulation steps to every system.
+     */
+    private final GameClock clock = new GameClock();
+
+    /**
+     * Touch events since the last step, with the time each happened.
+     */
+    private final InputEventQueue inputQueue = new InputEventQueue();
+
+    /**
+     * Using a 3D vector (though ignoring the Z parameter) to store touch coordinates. Reused for every touch.
+     */
+    private final Vector3 touchPosition = new Vector3();
+
+    /**
+     * Owns the fonts of every piece of text on screen.
+     */
+    private TextRenderer textRenderer;
+
+    /**
+     * End of game message, laid out once.
+     */
+    private TextLabel gameOverLabel;
+
+    /**
+     * How to go on after the ship is hit, shown below the end of game message when rewinding is possible.
+     */
+    private TextLabel rewindLabel;
+
+    /**
+     * Loading progress message, laid out again only when the percentage changes.
+     */
+    private TextLabel loadingLabel;
+
+    /**
+     * Reusable buffer to build the loading progress message in.
+     */
+    private final StringBuilder loadingText = new StringBuilder();
+
+    /**
+     * Time the game was constructed by its launcher, in nanoseconds. Startup times are measured from here.
+     */
+    private final long launchTime = TimeUtils.nanoTime();
+
+    /**
+     * Has the first frame, i.e. the loading screen, been drawn.
+     */
+    private boolean firstFrameDrawn = false;
+
+    /**
+     * Has the first frame of the game itself been drawn.
+     */
+    private boolean firstGameFrameDrawn = false;
+
+    /**
+     * Options set by the platform launcher.
+     */
+    private final ShooterGameConfiguration config;
+
+    /**
+     * Collects frame timings and render statistics, for the overlay and the optional CSV file.
+     */
+    private PerformanceMonitor performanceMonitor;
+
+    /**
+     * Notified around each phase of a frame: the performance monitor, and the configured event listener, if any.
+     */
+    private FramePhaseListener phaseListener;
+
+    /**
+     * Overlay showing the statistics of the performance monitor.
+     */
+    private PerformanceHud performanceHud;
+
+    /**
+     * Is the performance overlay displayed.
+     */
+    private boolean showPerformanceHud;
+
+    /**
+     * Is rendering on demand, because nothing moves. The backend then only calls render() on input, or when woken.
+     */
+    private boolean idle = false;
+
+    /**
+     * Time rendering on demand started, in nanoseconds, and number of frames drawn since, to log the wakeup rate.
+     */
+    private long idleStartTime;
+    private int idleFrames;
+
+    /**
+     * Wakes the render loop once, while rendering on demand, so the performance overlay keeps refreshing.
+     */
+    private final Timer.Task wakeTask = new Timer.Task()
+    {
+        @Override
+        public void run()
+        {
+            Gdx.graphics.requestRendering();
+        }
+    };
+
+    public ShooterGame()
+    {
+        this(new ShooterGameConfiguration());
+    }
+
+    /**
+     * @param config Options set by the platform launcher.
+     */
+    public ShooterGame(ShooterGameConfiguration config)
+    {
+        this.config = config;
+    }
+
     @Override
     public void create ()
     {
@@ -86,131 +236,429 @@ public class ShooterGame extends ApplicationAdapter
         camera.setToOrtho(false, SCREEN_WIDTH, SCREEN_HEIGHT); // Sets resolution.
 
         // Initialise SpriteBatch.
-        batch = new SpriteBatch();
-
-        // Create background.
-        background = new Texture(Gdx.files.internal("spacebackground.png"));
-
-        // Create Texture to display shots, and ShotManager instance to track/animate shooting.
-        Texture shotTexture      = new Texture(Gdx.files.internal("shotspritemap.png"));
-        Texture enemyShotTexture = new Texture(Gdx.files.internal("alienshotspritemap.png"));
-        shotManager 		     = new ShotManager(shotTexture, enemyShotTexture);
-
-        // Create the spaceship.
-        Texture spaceshipTexture = new Texture(Gdx.files.internal("spaceshipspritemap.png"));
-        spaceshipSprite          = new Sprite(spaceshipTexture);
-
-        // Create animated spaceship.
-        spaceshipAnimated = new AnimatedSprite(spaceshipSprite);
-        spaceshipAnimated.setPosition((SCREEN_WIDTH / 2), 0);
+        batch = new ProfilingSpriteBatch();
+
+        // Load fonts, which the loading screen needs, and lay out the end of game message.
+        textRenderer  = new TextRenderer();
+        gameOverLabel = textRenderer.createLabel(5f);
+        gameOverLabel.setText("PLAYER HIT!");
+        rewindLabel   = textRenderer.createLabel(1.5f);
+        rewindLabel.setText("Touch: restart    R or two fingers: rewind");
+        loadingLabel  = textRenderer.createLabel(2f);
+
+        // Measure every phase of a frame, for the performance overlay.
+        performanceMonitor = new PerformanceMonitor();
+        audio              = new AudioManager();
+        performanceHud     = new PerformanceHud(performanceMonitor, audio, textRenderer.createLabel(1f));
+        showPerformanceHud = config.showPerformanceHud;
+        if (config.performanceCsvFile != null) {
+            performanceMonitor.startCsv(config.performanceCsvFile);
+        }
 
-        // Create alien spaceship.
-        Texture enemyTexture = new Texture(Gdx.files.internal("alienshipspritemap.png"));
-        enemy                = new Enemy(enemyTexture, shotManager);
+        // Report phases to both the monitor and the event listener, e.g. a profiler, if there is one.
+        final GameEventListener eventListener = config.eventListener;
+        if (eventListener == null) {
+            phaseListener = performanceMonitor;
+        } else {
+            phaseListener = new FramePhaseListener()
+            {
+                @Override
+                public void phaseStarted(FramePhase phase)
+                {
+                    performanceMonitor.phaseStarted(phase);
+                    eventListener.phaseStarted(phase);
+                }
+
+                @Override
+                public void phaseEnded(FramePhase phase)
+                {
+                    eventListener.phaseEnded(phase);
+                    performanceMonitor.phaseEnded(phase);
+                }
+            };
+            batch.setEventListener(eventListener);
+        }
 
-        // Create collision detection handler.
-        collisionManager = new CollisionManager(spaceshipAnimated, enemy, shotManager);
+        // Queue touch events as they arrive, instead of polling the touch screen once per frame.
+        Gdx.input.setInputProcessor(inputQueue);
 
-        // Play groovy game music.
-        gameMusic = Gdx.audio.newMusic(Gdx.files.internal("ambient.flac"));
-        gameMusic.setVolume(0.25f); // Low volume.
-        gameMusic.setLooping(true);
-        gameMusic.play();
+        // Start loading everything else in the background. The world is created once loading completes.
+        assets = new GameAssets();
     }
 
     @Override
     public void dispose()
     {
+        wakeTask.cancel();
         batch.dispose();
+        assets.dispose();
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (replay != null) {
+            replay.close();
+        }
+        if (updater != null) {
+            updater.dispose();
+        }
+        if (backgroundLayer != null) {
+            backgroundLayer.dispose();
+        }
+        textRenderer.dispose();
+        performanceMonitor.dispose();
+        SpriteSheetCache.clear();
     }
 
     @Override
     public void render ()
     {
-        Gdx.gl.glClearColor(1, 0, 0, 1);
-        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+        float frameTime = Gdx.graphics.getDeltaTime();
+        int steps       = 0;
+        togglePerformanceHud();
+        if (config.eventListener != null) {
+            config.eventListener.frameStarted(world);
+        }
 
-        // Set projection.
-        batch.setProjectionMatrix(camera.combined);
+        // Until every asset is loaded, load a slice at a time and show progress.
+        if (world == null) {
+            if (!loadAssets()) {
+                drawLoadingScreen();
+                if (config.eventListener != null) {
+                    config.eventListener.frameEnded(world, steps);
+                }
+                return;
+            }
 
-        // Start drawing screen.
-        batch.begin();
+            startGame();
 
-        // Draw background.
-        batch.draw(background, 0, 0);
+            // Touches on the loading screen shouldn't move the ship.
+            inputQueue.clear();
 
-        // If game-over, stop drawing the spaceship, and display end of game message.
-        if (isGameOver) {
-            BitmapFont font = new BitmapFont();
-            font.getData().setScale(5f);
-            font.draw(batch, "PLAYER HIT!", 250, 250);
+            // Don't simulate the time spent loading.
+            frameTime = 0f;
         }
 
-        // Draw spaceship Sprite.
-        spaceshipAnimated.draw(batch);
+        handleRewind();
 
-		// Draw the alien spaceship.
-		enemy.draw(batch);
+        // Simulate as many fixed steps as the real time since the last frame allows, then draw. A frame drawn on
+        //  demand runs a single step, to apply the input which woke it, instead of catching up on the idle time.
+        if (idle) {
+            idleFrames++;
+            clock.advance(Math.min(frameTime, GameClock.TIME_STEP));
+        } else {
+            clock.advance(frameTime);
+        }
+        while (clock.consumeStep()) {
+            // Check for touch input, then advance the simulation.
+            handleInput();
+            world.update(clock.getStep());
+            steps++;
+
+            // Keep the steps leading up to a hit, not the idle ones after it.
+            if (snapshots != null && !world.isGameOver()) {
+                snapshots.save();
+            }
+        }
 
-        // Draw the spaceship's projectiles / shots.
-        shotManager.draw(batch);
+        // Play the Sounds requested by every step of this frame.
+        audio.update(frameTime);
 
-        // End drawing screen.
+        // Nothing moves while the game is over, so there is nothing to interpolate; draw the current positions.
+        phaseListener.phaseStarted(FramePhase.DRAW);
+        draw(world.isGameOver() ? 1f : clock.getAlpha());
+        phaseListener.phaseEnded(FramePhase.DRAW);
+
+        // This frame is the first to show the input drained since the last one.
+        long eventTime = inputQueue.takeUndisplayedEventTime();
+        if (eventTime != 0) {
+            performanceMonitor.recordInputLatency(TimeUtils.nanoTime() - eventTime);
+        }
+
+        // Record the frame before drawing the overlay, so the overlay doesn't count in its own statistics.
+        performanceMonitor.endFrame(frameTime, idle, batch, world);
+        performanceHud.update(frameTime);
+        if (showPerformanceHud) {
+            batch.begin();
+            performanceHud.draw(batch);
+            batch.end();
+        }
+
+        if (!firstGameFrameDrawn) {
+            firstGameFrameDrawn = true;
+            Gdx.app.log(TAG, "First game frame after " + millisSinceLaunch() + "ms");
+        }
+
+        updateRenderingMode();
+
+        if (config.eventListener != null) {
+            config.eventListener.frameEnded(world, steps);
+        }
+    }
+
+    /**
+     * Render on demand while nothing moves, and continuously otherwise. The fragments of the player's ship still fly
+     *  out once the game is over, so rendering continues until they fade. A replay keeps feeding input while the game
+     *  is over, so it always renders continuously.
+     */
+    private void updateRenderingMode()
+    {
+        boolean shouldIdle = config.renderOnDemand && world.isGameOver() && replay == null
+            && world.getParticleSystem().getLiveParticles() == 0;
+        if (shouldIdle != idle) {
+            idle = shouldIdle;
+            Gdx.graphics.setContinuousRendering(!idle);
+
+            long now = TimeUtils.nanoTime();
+            if (idle) {
+                idleStartTime = now;
+                idleFrames    = 0;
+            } else {
+                long millis = Math.max((now - idleStartTime) / 1000000L, 1L);
+                Gdx.app.log(TAG, "Rendered on demand for " + millis + "ms: " + idleFrames + " frames, "
+                    + (Math.round(idleFrames * 10000f / millis) / 10f) + " per second");
+            }
+        }
+
+        // The overlay shows live statistics, so keep refreshing it.
+        if (idle && showPerformanceHud && !wakeTask.isScheduled()) {
+            Timer.schedule(wakeTask, PerformanceHud.REFRESH_INTERVAL);
+        }
+    }
+
+    /**
+     * Load assets for a slice of time, telling the event listener, if any.
+     * @return TRUE once every asset is loaded.
+     */
+    private boolean loadAssets()
+    {
+        if (config.eventListener == null) {
+            return assets.update(LOADING_SLICE_MILLIS);
+        }
+
+        config.eventListener.assetLoadStarted();
+        boolean loaded = assets.update(LOADING_SLICE_MILLIS);
+        config.eventListener.assetLoadEnded(assets.getLoadedAssets(), assets.getProgress());
+
+        return loaded;
+    }
+
+    /**
+     * Create the world from the loaded assets, and start the music.
+     */
+    private void startGame()
+    {
+        backgroundLayer = new StaticLayer(assets.getBackground(), SCREEN_WIDTH, SCREEN_HEIGHT);
+
+        // A replay reproduces the recorded world, which needs the recorded seed and waves.
+        WaveConfiguration waves = config.waves;
+        long seed               = MathUtils.random.nextLong();
+        if (config.replayFile != null) {
+            replay = new InputReplay(Gdx.files.local(config.replayFile));
+            waves  = replay.getWaves();
+            seed   = replay.getSeed();
+        }
+
+        // Create the world, which animates the ships and their shots from the atlas.
+        TextureAtlas atlas = assets.getAtlas();
+        world              = new GameWorld(
+            SpriteSheetCache.get(atlas.findRegion("spaceshipspritemap")),
+            SpriteSheetCache.get(atlas.findRegion("alienshipspritemap")),
+            SpriteSheetCache.get(atlas.findRegion("shotspritemap")),
+            SpriteSheetCache.get(atlas.findRegion("alienshotspritemap")),
+            waves,
+            seed
+        );
+        if (config.recordFile != null) {
+            recorder = new InputRecorder(Gdx.files.local(config.recordFile), seed, waves);
+        }
+        // An invincible ship is never hit, so the game is never over, and there is nothing to rewind to.
+        if (config.rewindTicks > 0 && recorder == null && replay == null && !waves.invinciblePlayer) {
+            snapshots = new SnapshotRing(world, config.rewindTicks);
+        }
+        world.getShotManager().setSounds(
+            audio.createChannel(assets.getLaser(), LASER_VOICES, 1f, MINIMUM_TIME_BETWEEN_SOUNDS, LASER_DURATION),
+            audio.createChannel(assets.getPlasma(), PLASMA_VOICES, 1f, MINIMUM_TIME_BETWEEN_SOUNDS, PLASMA_DURATION)
+        );
+        world.setPhaseListener(phaseListener);
+        world.setParticleSystem(new ParticleSystem(config.maxParticles));
+
+        // Move aliens and shots on every core, once there are enough of them to be worth it.
+        int threads = config.updateThreads > 0 ? config.updateThreads : Runtime.getRuntime().availableProcessors();
+        updater     = new ParallelUpdater(threads, config.parallelThreshold);
+        world.setParallelUpdater(updater);
+
+        // Play groovy game music.
+        gameMusic = assets.getGameMusic();
+        if (gameMusic != null) {
+            gameMusic.setVolume(0.25f); // Low volume.
+            gameMusic.setLooping(true);
+            gameMusic.play();
+        }
+    }
+
+    /**
+     * Draw the loading progress. The first frame drawn is always the loading screen, which only needs fonts.
+     */
+    private void drawLoadingScreen()
+    {
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        loadingText.setLength(0);
+        loadingText.append("LOADING ").append((int) (assets.getProgress() * 100f)).append('%');
+        loadingLabel.setText(loadingText);
+
+        batch.setProjectionMatrix(camera.combined);
+        batch.begin();
+        loadingLabel.draw(
+            batch,
+            (SCREEN_WIDTH - loadingLabel.getWidth()) / 2,
+            (SCREEN_HEIGHT + loadingLabel.getHeight()) / 2
+        );
         batch.end();
 
-        // Check for touch input.
-        handleInput();
+        if (!firstFrameDrawn) {
+            firstFrameDrawn = true;
+            Gdx.app.log(TAG, "First frame after " + millisSinceLaunch() + "ms");
+        }
+    }
 
-        if (!isGameOver) {
-            // Animate spaceship movement.
-            spaceshipAnimated.move();
+    /**
+     * @return milliseconds since the game was constructed.
+     */
+    private long millisSinceLaunch()
+    {
+        return (TimeUtils.nanoTime() - launchTime) / 1000000L;
+    }
+
+    /**
+     * While the game is over, rewind a few seconds when R is pressed, instead of restarting. A two-finger tap does the
+     *  same on touch screens; see handleGestures().
+     */
+    private void handleRewind()
+    {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.R)) {
+            rewind();
+        }
+    }
+
+    /**
+     * Rewind a few seconds, if the game is over and snapshots are kept.
+     */
+    private void rewind()
+    {
+        if (snapshots != null && world.isGameOver()) {
+            snapshots.rewind((int) (REWIND_SECONDS / GameClock.TIME_STEP));
+        }
+    }
 
-            // Animate alien spaceship movement.
-            enemy.update();
+    /**
+     * Show or hide the performance overlay when F3 is pressed. A three-finger tap does the same on touch screens; see
+     *  handleGestures().
+     */
+    private void togglePerformanceHud()
+    {
+        if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            showPerformanceHud = !showPerformanceHud;
+        }
+    }
 
-            // Animate projectiles / shots movement.
-            shotManager.update();
+    /**
+     * Act on a multi-finger tap which ended during the last drain of the input queue: two fingers rewind, three show
+     *  or hide the performance overlay. The queue sees every finger however quickly it is lifted, unlike polling the
+     *  touch screen once per frame.
+     */
+    private void handleGestures()
+    {
+        int fingers = inputQueue.getReleasedFingers();
+        if (fingers == 2) {
+            rewind();
+        } else if (fingers == 3) {
+            showPerformanceHud = !showPerformanceHud;
+        }
+    }
 
-            // Check for collisions.
-            collisionManager.handleCollisions();
+    /**
+     * Draw the scene, interpolating moving objects between the last two simulation steps.
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
+     */
+    private void draw(float alpha)
+    {
+        // An opaque background overwrites every pixel, so clearing the screen first would be wasted fill rate.
+        if (!backgroundLayer.coversScreen()) {
+            Gdx.gl.glClearColor(1, 0, 0, 1);
+            Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
         }
 
-        // Check for game-over state.
-        if (spaceshipAnimated.isDead()) {
-            isGameOver = true;
+        // Draw background, from vertices cached on the GPU.
+        backgroundLayer.draw(camera.combined);
+
+        // Set projection.
+        batch.setProjectionMatrix(camera.combined);
+
+        // Start drawing screen.
+        batch.begin();
+
+        // If game-over, stop drawing the spaceship, and display end of game message.
+        if (world.isGameOver()) {
+            gameOverLabel.draw(batch, 250, 250);
+            if (snapshots != null && snapshots.size() > 0) {
+                rewindLabel.draw(batch, (SCREEN_WIDTH - rewindLabel.getWidth()) / 2, 150);
+            }
         }
+
+        // Draw ships and their projectiles / shots.
+        world.draw(batch, alpha);
+
+        // End drawing screen.
+        batch.end();
     }
 
     /**
-     * Check if screen is touched, and if ship should move to the left or right. Also fires ship's weapons on touch.
+     * Apply the touch events queued since the last step, act on multi-finger taps, and pass the touch position on to
+     *  the world, which moves the ship and fires its weapons. When replaying, the recorded input is passed on instead; when recording, the input
+     *  is also written to the recording.
      */
     private void handleInput()
     {
-        if (Gdx.input.isTouched()) {
+        inputQueue.drain();
+        handleGestures();
 
-            // If game is over, touch the screen to restart.
-            if (isGameOver) {
-                spaceshipAnimated.setDead(false);
-                isGameOver = false;
+        if (replay != null) {
+            // Touches don't steer a replay. Once the recording has ended, the replayed ship idles.
+            if (replay.hasNext()) {
+                replay.apply(world);
+            } else {
+                world.setInput(false, 0);
             }
+            return;
+        }
+
+        // While the game is over, a touch only restarts it once it has ended with one finger, so the first finger of a
+        //  two-finger tap doesn't restart the game before the tap can rewind it.
+        boolean touched = inputQueue.isTouched();
+        if (world.isGameOver()) {
+            touched = inputQueue.getReleasedFingers() == 1;
 
-            // Using a 3D vector (though ignoring the Z parameter) to store touch coordinates.
-            Vector3 touchPosition = new Vector3(Gdx.input.getX(), Gdx.input.getY(), 0);
+            // The world restarts with this step; its snapshots belong to the session which just ended.
+            if (touched && snapshots != null) {
+                snapshots.clear();
+            }
+        }
+
+        float touchX = 0f;
+        if (touched) {
+            touchPosition.set(inputQueue.getScreenX(), inputQueue.getScreenY(), 0);
             // Storing touch position. This alleviates issue where ship starts moving in opposite direction if touched
             //  too many times in the same direction, by setting the touch coordinates to be the same as the screen
             //  drawing coordinates.
             camera.unproject(touchPosition);
+            touchX = touchPosition.x;
+        }
 
-            // If the position of the X touch input is beyond the spaceship's X position, then the ship should move
-            //  to the right. Otherwise, it should move to the left.
-            if (touchPosition.x > spaceshipAnimated.getX()) {
-                spaceshipAnimated.moveRight();
-            } else {
-                spaceshipAnimated.moveLeft();
-            }
-
-            // Handle firing weapons.
-            shotManager.firePlayerShot(spaceshipAnimated.getX());
+        world.setInput(touched, touchX);
+        if (recorder != null) {
+            recorder.record(touched, touchX);
         }
     }
 }
@@ -0,0 +1,70 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Options for a ShooterGame, set by the platform launcher before the game is created.
+ */
+public class ShooterGameConfiguration
+{
+    /**
+     * Show the performance overlay from the first frame. It can also be toggled while playing.
+     */
+    public boolean showPerformanceHud = false;
+
+    /**
+     * Local file to stream per-frame performance samples to, as CSV. Null to disable.
+     */
+    public String performanceCsvFile = null;
+
+    /**
+     * Tunables of the alien waves, e.g. WaveConfiguration.stress() for the stress scenario.
+     */
+    public WaveConfiguration waves = new WaveConfiguration();
+
+    /**
+     * Local file to record the input of every tick to, with the RNG seed and waves. Null to disable.
+     */
+    public String recordFile = null;
+
+    /**
+     * Local file to replay a recording from, instead of reading the touch screen. The recorded seed and waves replace
+     *  the configured ones. Null to disable.
+     */
+    public String replayFile = null;
+
+    /**
+     * Number of steps kept in memory to rewind after the player's ship is hit. Each takes a few hundred bytes, plus
+     *  28 per shot in flight. Ignored while the player is invincible, as in the stress scenario, whose ship is never
+     *  hit. 0 to disable.
+     */
+    public int rewindTicks = 300;
+
+    /**
+     * Number of threads to move aliens and shots on, including the render thread. 0 for one per available core, 1 to
+     *  keep everything on the render thread.
+     */
+    public int updateThreads = 0;
+
+    /**
+     * Minimum number of aliens, or of shots of one kind, to split their movement among the threads. Fewer are moved on
+     *  the render thread, where they take less time than waking the other threads would.
+     */
+    public int parallelThreshold = ParallelUpdater.DEFAULT_THRESHOLD;
+
+    /**
+     * Most fragments of hit ships and shots alive at once. Each takes 44 bytes; once they are all alive, new fragments
+     *  replace the oldest, so heavy combat never costs more than this many to move and draw.
+     */
+    public int maxParticles = 1024;
+
+    /**
+     * Stop redrawing continuously while nothing moves, i.e. while the game is over and the fragments of the player's
+     *  ship have faded, to save power. Frames are then only drawn on input, and when the performance overlay refreshes.
+     */
+    public boolean renderOnDemand = true;
+
+    /**
+     * Notified of frames, simulation phases, SpriteBatch flushes and asset loading, e.g. to emit profiler events.
+     *  Null if nothing is listening.
+     */
+    public GameEventListener eventListener = null;
+}
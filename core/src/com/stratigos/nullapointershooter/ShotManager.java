@@ -1,17 +1,8 @@
 package com.stratigos.nullapointershooter;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.audio.Sound;
-import com.badlogic.gdx.graphics.Texture;
-import com.badlogic.gdx.graphics.g2d.Sprite;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
-import com.badlogic.gdx.math.Intersector;
-import com.badlogic.gdx.math.Rectangle;
-import com.badlogic.gdx.math.Vector2;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.nio.ByteBuffer;
 
 /**
  * Class to handle shooting of projectiles from a Sprite. Handles number of shots fired, range, animation, etc.
@@ -26,19 +17,25 @@ public class ShotManager
     private static final int SHOT_Y_OFFSET = 110;
 
     /**
-     * Position of center of Y-axis for the alien Sprite.
+     * Value to store the velocity of the projectile.
      */
-    public static final float ENEMY_SHOT_Y_OFFSET = 400;
+    private static final int SHOT_SPEED = 300;
 
     /**
-     * Value to store the velocity of the projectile.
+     * Value which represents rate of fire, unless configured otherwise.
      */
-    private static final int SHOT_SPEED = 300;
+    public static final float MINIMUM_TIME_BETWEEN_SHOTS = 0.5f;
 
     /**
-     * Value which represents rate of fire.
+     * Minimum seconds between two shots of the player.
      */
-    private static final float MINIMUM_TIME_BETWEEN_SHOTS = 0.5f;
+    private final float minimumTimeBetweenShots;
+
+    /**
+     * Number of shots fired by the player, and by aliens, since the ShotManager was created.
+     */
+    private long playerShotsFired = 0;
+    private long enemyShotsFired  = 0;
 
     /**
      * Amount of time which has passed since the last shot.
@@ -46,180 +43,226 @@ public class ShotManager
     private float timeSinceLastShot = 0f;
 
     /**
-     * Texture to hold the Sprite map of the animated shot.
+     * Number of shots of each kind to preallocate, so the first volleys of a game don't allocate.
      */
-    private final Texture shotTexture;
+    private static final int INITIAL_CAPACITY = 64;
 
     /**
-     * Texture to hold the Sprite map of the Enemy animated shot.
+     * Currently active shots / projectiles from the ship.
      */
-    private final Texture enemyShotTexture;
+    private final ProjectileStore shots;
 
     /**
-     * List of currently active shots / projectiles from the ship.
+     * Currently active enemy shots.
      */
-    private List<AnimatedSprite> shots = new ArrayList<AnimatedSprite>();
+    private final ProjectileStore enemyShots;
 
     /**
-     * List of currently active enemy shots.
+     * Audio effect for firing a shot. Null until set, in which case shots are silent.
      */
-    private List<AnimatedSprite> enemyShots = new ArrayList<AnimatedSprite>();
+    private SoundChannel laser;
 
     /**
-     * Audio effect for firing a shot.
+     * Audio effect for Enemy firing a shot. Null until set, in which case shots are silent.
      */
-    private Sound laser = Gdx.audio.newSound(Gdx.files.internal("shoot.wav"));
+    private SoundChannel plasma;
 
     /**
-     * Audnio effect for Enemy firing a shot,
+     * Threads to move shots on. Null to move them on the calling thread.
      */
-    private Sound plasma = Gdx.audio.newSound(Gdx.files.internal("alienshot.mp3"));
+    private ParallelUpdater updater;
 
-    public ShotManager(Texture shotTexture, Texture enemyShotTexture)
+    /**
+     * @param shotSheet Frames of the player's shots.
+     * @param enemyShotSheet Frames of the Enemy shots.
+     */
+    public ShotManager(SpriteSheet shotSheet, SpriteSheet enemyShotSheet)
     {
-        this.shotTexture      = shotTexture;
-        this.enemyShotTexture = enemyShotTexture;
+        this(shotSheet, enemyShotSheet, MINIMUM_TIME_BETWEEN_SHOTS);
     }
 
     /**
-     * Loop through List of shots, and draw each.
-     * @param batch reference to the game's SpriteBatch instance.
+     * @param shotSheet Frames of the player's shots.
+     * @param enemyShotSheet Frames of the Enemy shots.
+     * @param minimumTimeBetweenShots Minimum seconds between two shots of the player.
      */
-    public void draw(SpriteBatch batch)
+    public ShotManager(SpriteSheet shotSheet, SpriteSheet enemyShotSheet, float minimumTimeBetweenShots)
     {
-        for (AnimatedSprite shot : shots) {
-            shot.draw(batch);
-        }
-        for (AnimatedSprite shot : enemyShots) {
-            shot.draw(batch);
-        }
+        this.minimumTimeBetweenShots = minimumTimeBetweenShots;
+
+        shots      = new ProjectileStore(shotSheet, INITIAL_CAPACITY);
+        enemyShots = new ProjectileStore(enemyShotSheet, INITIAL_CAPACITY);
     }
 
     /**
-     * Moves each Sprite (shot) in the list. If shots move beyond the screen height, they are removed from the list
-     *  of active shots.
+     * Set the audio effects played when shots are fired. Simulations without audio never set them.
+     * @param laser Channel of the audio effect for firing a shot.
+     * @param plasma Channel of the audio effect for Enemy firing a shot.
      */
-    public void update()
+    public void setSounds(SoundChannel laser, SoundChannel plasma)
     {
-        Iterator<AnimatedSprite> i = shots.iterator();
-        Iterator<AnimatedSprite> j = enemyShots.iterator();
-
-        // Animate player Sprite shots.
-        while (i.hasNext()) {
-            AnimatedSprite shot = i.next();
-            shot.move();
-
-            // Remove shot if it went off the screen.
-            if (shot.getY() > ShooterGame.SCREEN_HEIGHT) {
-                i.remove();
-            }
-        }
+        this.laser  = laser;
+        this.plasma = plasma;
+    }
 
-        // Animate Enemy Sprite shots.
-        while (j.hasNext()) {
-            AnimatedSprite enemyShot = j.next();
-            enemyShot.move();
+    /**
+     * Set the threads shots are moved on. Culling and collisions stay on the calling thread.
+     * @param updater Threads to move shots on, or null to move them on the calling thread.
+     */
+    public void setParallelUpdater(ParallelUpdater updater)
+    {
+        this.updater = updater;
+    }
 
-            // Remove shot if it went off the screen (0 is the bottom).
-            if (enemyShot.getY() < 0) {
-                j.remove();
-            }
-        }
+    /**
+     * Draw every active shot.
+     * @param batch reference to the game's SpriteBatch instance.
+     * @param alpha Interpolation factor between the previous (0) and current (1) simulation step.
+     */
+    public void draw(SpriteBatch batch, float alpha)
+    {
+        shots.draw(batch, alpha);
+        enemyShots.draw(batch, alpha);
+    }
 
-        timeSinceLastShot += Gdx.graphics.getDeltaTime();
+    /**
+     * Moves each shot. If shots move beyond the screen height, they are removed from the active shots.
+     * @param delta Seconds passed in this simulation step.
+     */
+    public void update(float delta)
+    {
+        // Animate player and Enemy shots, then remove shots which went off the top or bottom (0) of the screen. Enemy
+        //  shots may also fly sideways, so they are culled once fully past the left or right edge as well.
+        move(shots, delta);
+        shots.cull(0, ShooterGame.SCREEN_HEIGHT);
+        move(enemyShots, delta);
+        enemyShots.cull(-enemyShots.getWidth(), ShooterGame.SCREEN_WIDTH, 0, ShooterGame.SCREEN_HEIGHT);
+
+        timeSinceLastShot += delta;
     }
 
     /**
      * Fires projectiles from Sprite, handling animation of the projectile / weapon.
      * @param shipCenterXLocation The center of the Sprite with a weapon.
      */
-    public void firePlayerShot(int shipCenterXLocation)
+    public void firePlayerShot(float shipCenterXLocation)
     {
         if (canFireShot()) {
-            Sprite newShot                 = new Sprite(shotTexture);
-            AnimatedSprite newShotAnimated = new AnimatedSprite(newShot);
-
-            newShotAnimated.setPosition(shipCenterXLocation, SHOT_Y_OFFSET);
-            newShotAnimated.setVelocity(new Vector2(0, SHOT_SPEED)); // Shot only moves on the Y axis, so X is zero.
-
-            // Add new shot to list of current shots.
-            shots.add(newShotAnimated);
+            // Add new shot to current shots. Shot only moves on the Y axis, so X velocity is zero.
+            shots.add(shipCenterXLocation, SHOT_Y_OFFSET, 0, SHOT_SPEED);
+            playerShotsFired++;
 
             // Reset time since last shot.
             timeSinceLastShot = 0f;
 
             // Play audio for shot.
-            laser.play();
+            if (laser != null) {
+                laser.play();
+            }
         }
     }
 
     /**
-     * Handler for the AI to fire projectiles. Assumes Enemy class handles logic for deciding if shot is appropriate.
-     * @param alienCenterXLocation Location of center of AI Sprite.
+     * Fire an alien projectile in any direction. Shots fired in the same frame share one play of the audio effect.
+     * @param centerX Center of the projectile.
+     * @param bottomY Bottom of the projectile.
+     * @param velocityX Velocity along the X axis, in pixels per second.
+     * @param velocityY Velocity along the Y axis, in pixels per second.
      */
-    public void fireEnemyShot(int alienCenterXLocation)
+    public void fireEnemyShot(float centerX, float bottomY, float velocityX, float velocityY)
     {
-        Sprite newShot                 = new Sprite(enemyShotTexture);
-        AnimatedSprite newShotAnimated = new AnimatedSprite(newShot);
-
-        newShotAnimated.setPosition(alienCenterXLocation, ENEMY_SHOT_Y_OFFSET);
-        newShotAnimated.setVelocity(new Vector2(0, -SHOT_SPEED)); // Shoot opposite direction from player.
-
-        // Add new shot to list of current shots.
-        enemyShots.add(newShotAnimated);
+        // Add new shot to current shots.
+        enemyShots.add(centerX, bottomY, velocityX, velocityY);
+        enemyShotsFired++;
 
         // Play audio for enemy shot.
-        plasma.play();
+        if (plasma != null) {
+            plasma.play();
+        }
     }
 
     /**
-     * Check if any player shots are within a bounding box / Rectangle.
-     * @param boundingBox The area in which to detect a collision. Typically the bounding box of the Enemy ship.
-     * @return TRUE if player shot is within Rectangle.
+     * @return currently active shots fired by the player.
      */
-    public boolean playerShotTouches(Rectangle boundingBox)
+    public ProjectileStore getPlayerShots()
     {
-        return shotTouches(shots, boundingBox);
+        return shots;
     }
 
     /**
-     * Check if any enemy shots are within a bounding box / Rectangle.
-     * @param boundingBox The area in which to detect a collision. Typically the bounding box of the player.
-     * @return TRUE if enemy shot is within Rectangle.
+     * @return currently active shots fired by aliens.
      */
-    public boolean enemyShotTouches(Rectangle boundingBox)
+    public ProjectileStore getEnemyShots()
     {
-        return shotTouches(enemyShots, boundingBox);
+        return enemyShots;
     }
 
     /**
-     * Determines if Sprite is able to fire a shot or not, based on throttling criteria.
-     * @return Boolean
+     * @return number of bytes writeState() would write now.
      */
-    private boolean canFireShot()
+    public int getStateSize()
     {
-        return timeSinceLastShot > MINIMUM_TIME_BETWEEN_SHOTS;
+        return 4 + 2 * 8 + shots.getStateSize() + enemyShots.getStateSize();
     }
 
     /**
-     * Check if any items in a list of shots are within a bounding Rectangle.
-     * @param theShots List of shots.
-     * @return TRUE if collision is detected.
+     * Write the rate of fire timer, the shot counters and every shot, for a snapshot of the world.
+     * @param buffer Destination, with at least getStateSize() bytes remaining.
      */
-    private boolean shotTouches(List<AnimatedSprite> theShots, Rectangle boundingBox)
+    public void writeState(ByteBuffer buffer)
     {
-        Iterator<AnimatedSprite> i = theShots.iterator();
-        Rectangle intersection     = new Rectangle(0, 0, 0, 0);
+        buffer.putFloat(timeSinceLastShot).putLong(playerShotsFired).putLong(enemyShotsFired);
+        shots.writeState(buffer);
+        enemyShots.writeState(buffer);
+    }
 
-        // Check all player shots to see if they collide with the Rectangle.
-        while (i.hasNext()) {
-            AnimatedSprite shot = i.next();
-            if (Intersector.intersectRectangles(shot.getBoundingBox(), boundingBox, intersection)) {
-                i.remove();
-                return true;
-            }
+    /**
+     * Restore the state written by writeState().
+     * @param buffer Source, positioned where writeState() started writing.
+     */
+    public void readState(ByteBuffer buffer)
+    {
+        timeSinceLastShot = buffer.getFloat();
+        playerShotsFired  = buffer.getLong();
+        enemyShotsFired   = buffer.getLong();
+        shots.readState(buffer);
+        enemyShots.readState(buffer);
+    }
+
+    /**
+     * Move every shot of a store, on the updater's threads if any.
+     */
+    private void move(ProjectileStore store, float delta)
+    {
+        if (updater != null) {
+            store.update(delta, updater);
+        } else {
+            store.update(delta);
         }
+    }
 
-        return false;
+    /**
+     * @return number of shots fired by the player since the ShotManager was created.
+     */
+    public long getPlayerShotsFired()
+    {
+        return playerShotsFired;
+    }
+
+    /**
+     * @return number of shots fired by aliens since the ShotManager was created.
+     */
+    public long getEnemyShotsFired()
+    {
+        return enemyShotsFired;
+    }
+
+    /**
+     * Determines if Sprite is able to fire a shot or not, based on throttling criteria.
+     * @return Boolean
+     */
+    private boolean canFireShot()
+    {
+        return timeSinceLastShot > minimumTimeBetweenShots;
     }
 }
@@ -0,0 +1,22 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Arrangement of the shots an alien fires at once.
+ */
+public enum ShotPattern
+{
+    /**
+     * One shot, straight down.
+     */
+    SINGLE,
+
+    /**
+     * A fan of shots, centered on straight down.
+     */
+    SPREAD,
+
+    /**
+     * Shots evenly spaced in every direction.
+     */
+    RING
+}
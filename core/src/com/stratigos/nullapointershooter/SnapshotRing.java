@@ -0,0 +1,110 @@
+package com.stratigos.nullapointershooter;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Keeps snapshots of a GameWorld's state after each of its latest steps, to rewind it without replaying the session:
+ *  to retry after the player's ship is hit, or to correct a prediction rollback-style.
+ *
+ * Each snapshot is written by GameWorld.writeState() into its own ByteBuffer, allocated up front and reused as the
+ *  ring wraps around; a buffer only grows when more shots are in flight than it has room for. Saving or restoring is
+ *  a linear copy of a few dozen bytes per ship and shot, with no locking, since the world is only stepped on one
+ *  thread.
+ */
+public class SnapshotRing
+{
+    /**
+     * Extra room given to a buffer when it grows, so a slowly growing number of shots doesn't grow it every time.
+     */
+    private static final float GROWTH = 1.5f;
+
+    /**
+     * World whose state is saved and restored.
+     */
+    private final GameWorld world;
+
+    /**
+     * One buffer per snapshot, used as a ring.
+     */
+    private final ByteBuffer[] buffers;
+
+    /**
+     * Index of the newest snapshot, and number of snapshots kept.
+     */
+    private int newest = -1;
+    private int count  = 0;
+
+    /**
+     * Allocate room for every snapshot, sized for the world's current state.
+     * @param world World whose state is saved and restored.
+     * @param capacity Number of snapshots kept; older ones are overwritten.
+     */
+    public SnapshotRing(GameWorld world, int capacity)
+    {
+        this.world = world;
+
+        buffers  = new ByteBuffer[capacity];
+        int size = (int) (world.getStateSize() * GROWTH);
+        for (int i = 0; i < capacity; i++) {
+            buffers[i] = ByteBuffer.allocate(size);
+        }
+    }
+
+    /**
+     * Save the world's current state as the newest snapshot, overwriting the oldest once the ring is full.
+     */
+    public void save()
+    {
+        newest = (newest + 1) % buffers.length;
+        count  = Math.min(count + 1, buffers.length);
+
+        int size = world.getStateSize();
+        if (buffers[newest].capacity() < size) {
+            buffers[newest] = ByteBuffer.allocate((int) (size * GROWTH));
+        }
+
+        ByteBuffer buffer = buffers[newest];
+        buffer.clear();
+        world.writeState(buffer);
+        buffer.flip();
+    }
+
+    /**
+     * Bring the world back to an earlier snapshot, and forget every snapshot newer than it.
+     * @param steps Number of snapshots to go back: 0 for the newest. Goes back to the oldest if fewer are kept.
+     * @return number of snapshots actually gone back, or -1 if none is kept.
+     */
+    public int rewind(int steps)
+    {
+        if (count == 0) {
+            return -1;
+        }
+
+        steps  = Math.min(steps, count - 1);
+        newest = (newest - steps + buffers.length) % buffers.length;
+        count -= steps;
+
+        ByteBuffer buffer = buffers[newest];
+        buffer.rewind();
+        world.readState(buffer);
+
+        return steps;
+    }
+
+    /**
+     * Forget every snapshot, e.g. once the world is restarted.
+     */
+    public void clear()
+    {
+        newest = -1;
+        count  = 0;
+    }
+
+    /**
+     * @return number of snapshots kept.
+     */
+    public int size()
+    {
+        return count;
+    }
+}
@@ -0,0 +1,180 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.audio.Sound;
+
+/**
+ * Plays one Sound through a fixed number of voices. The game only requests plays; requests are collected during a
+ *  frame and played at most once when the AudioManager flushes them, so many ships firing in the same frame produce
+ *  one voice instead of many. When every voice is busy, the oldest one is stopped and reused.
+ *
+ * Requesting a play never touches the audio backend, so it is cheap and safe to call from the simulation.
+ */
+public class SoundChannel
+{
+    /**
+     * Sound played by this channel.
+     */
+    private final Sound sound;
+
+    /**
+     * Volume of each play, from 0 to 1.
+     */
+    private final float volume;
+
+    /**
+     * Minimum time between two plays, in seconds. Requests arriving sooner are dropped.
+     */
+    private final float minInterval;
+
+    /**
+     * Length of the Sound, in seconds. A voice started longer ago than this is considered finished.
+     */
+    private final float duration;
+
+    /**
+     * Backend ids of the voices, as returned by Sound.play(), in the order they were started. Used as a ring.
+     */
+    private final long[] voiceIds;
+
+    /**
+     * Time each voice was started, in seconds of AudioManager time.
+     */
+    private final float[] voiceStartTimes;
+
+    /**
+     * Index of the oldest voice in the ring.
+     */
+    private int oldestVoice = 0;
+
+    /**
+     * Number of voices started and not yet finished.
+     */
+    private int activeVoices = 0;
+
+    /**
+     * Number of plays requested since the last flush.
+     */
+    private int pendingRequests = 0;
+
+    /**
+     * Time of the last play, in seconds of AudioManager time.
+     */
+    private float lastPlayTime = Float.NEGATIVE_INFINITY;
+
+    /**
+     * Counters, since the channel was created.
+     */
+    private int played    = 0;
+    private int coalesced = 0;
+    private int dropped   = 0;
+    private int stolen    = 0;
+
+    /**
+     * @param sound Sound played by this channel.
+     * @param maxVoices Maximum number of plays of the Sound heard at once.
+     * @param volume Volume of each play, from 0 to 1.
+     * @param minInterval Minimum time between two plays, in seconds.
+     * @param duration Length of the Sound, in seconds.
+     */
+    SoundChannel(Sound sound, int maxVoices, float volume, float minInterval, float duration)
+    {
+        this.sound       = sound;
+        this.volume      = volume;
+        this.minInterval = minInterval;
+        this.duration    = duration;
+
+        voiceIds        = new long[maxVoices];
+        voiceStartTimes = new float[maxVoices];
+    }
+
+    /**
+     * Request the Sound to be played at the next flush.
+     */
+    public void play()
+    {
+        pendingRequests++;
+    }
+
+    /**
+     * Play the Sound once if it was requested since the last flush, and count what was coalesced or dropped.
+     * @param time Current AudioManager time, in seconds.
+     */
+    void flush(float time)
+    {
+        if (pendingRequests == 0) {
+            return;
+        }
+
+        // Every request past the first one in a frame is merged into it.
+        coalesced      += pendingRequests - 1;
+        pendingRequests = 0;
+
+        if (time - lastPlayTime < minInterval) {
+            dropped++;
+            return;
+        }
+
+        releaseFinishedVoices(time);
+
+        // When every voice is busy, stop the oldest one, and start the new play in its slot.
+        int slot;
+        if (activeVoices == voiceIds.length) {
+            slot = oldestVoice;
+            sound.stop(voiceIds[slot]);
+            oldestVoice = (oldestVoice + 1) % voiceIds.length;
+            stolen++;
+        } else {
+            slot = (oldestVoice + activeVoices) % voiceIds.length;
+            activeVoices++;
+        }
+
+        voiceIds[slot]        = sound.play(volume);
+        voiceStartTimes[slot] = time;
+        lastPlayTime          = time;
+        played++;
+    }
+
+    /**
+     * Forget voices which have played to the end. Voices finish in the order they started, so only the oldest ones
+     *  need checking.
+     */
+    private void releaseFinishedVoices(float time)
+    {
+        while (activeVoices > 0 && time - voiceStartTimes[oldestVoice] >= duration) {
+            oldestVoice = (oldestVoice + 1) % voiceIds.length;
+            activeVoices--;
+        }
+    }
+
+    /**
+     * @return number of plays started.
+     */
+    public int getPlayed()
+    {
+        return played;
+    }
+
+    /**
+     * @return number of requests merged into another request of the same frame.
+     */
+    public int getCoalesced()
+    {
+        return coalesced;
+    }
+
+    /**
+     * @return number of plays skipped because the previous one started less than the minimum interval before.
+     */
+    public int getDropped()
+    {
+        return dropped;
+    }
+
+    /**
+     * @return number of voices stopped early to make room for a new play.
+     */
+    public int getStolen()
+    {
+        return stolen;
+    }
+}
@@ -0,0 +1,313 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+
+/**
+ * Uniform grid over the playfield, used as a broadphase for collision detection. Targets are registered in every cell
+ *  their bounding box overlaps, so a projectile only has to be tested against the targets sharing its cells instead of
+ *  against every target. Positions outside the playfield are clamped into the border cells.
+ *
+ * The grid is updated incrementally: update() only touches the cells of targets which moved into a different range of
+ *  cells, appeared, or died since the last update. The order of the targets within a cell therefore depends on past
+ *  updates, so when several targets match a query, the one with the lowest index in the collection wins. Queries then
+ *  give the same answer for the same targets, however the grid got there, e.g. after a world is rewound.
+ */
+public class SpatialHash
+{
+    /**
+     * Default width and height of a cell, in pixels. Roughly half the size of a ship.
+     */
+    public static final int DEFAULT_CELL_SIZE = 64;
+
+    /**
+     * Width and height of a cell, in pixels.
+     */
+    private final int cellSize;
+
+    /**
+     * Number of cells along the X axis.
+     */
+    private final int columns;
+
+    /**
+     * Number of cells along the Y axis.
+     */
+    private final int rows;
+
+    /**
+     * Slot indices of the targets registered in each cell, indexed by row * columns + column.
+     */
+    private final IntArray[] cells;
+
+    /**
+     * Target registered in each slot. A slot's index matches the target's index in the collection given to update().
+     */
+    private final Array<Collidable> slots = new Array<Collidable>();
+
+    /**
+     * Range of cells each slot is registered in, as first column, first row, last column, last row. A first column of
+     *  -1 means the slot is not registered in any cell.
+     */
+    private int[] ranges = new int[0];
+
+    public SpatialHash()
+    {
+        this(ShooterGame.SCREEN_WIDTH, ShooterGame.SCREEN_HEIGHT, DEFAULT_CELL_SIZE);
+    }
+
+    /**
+     * @param width Width of the playfield, in pixels.
+     * @param height Height of the playfield, in pixels.
+     * @param cellSize Width and height of a cell, in pixels.
+     */
+    public SpatialHash(int width, int height, int cellSize)
+    {
+        this.cellSize = cellSize;
+        this.columns  = (width + cellSize - 1) / cellSize;
+        this.rows     = (height + cellSize - 1) / cellSize;
+        this.cells    = new IntArray[columns * rows];
+
+        for (int i = 0; i < cells.length; i++) {
+            cells[i] = new IntArray(false, 4);
+        }
+    }
+
+    /**
+     * Preallocate room for a number of targets, all in the same cell, so later updates with up to that many targets
+     *  never allocate.
+     * @param count Number of targets.
+     */
+    public void reserve(int count)
+    {
+        ensureRanges(count);
+        slots.ensureCapacity(count - slots.size);
+
+        for (int i = 0; i < cells.length; i++) {
+            cells[i].ensureCapacity(count - cells[i].size);
+        }
+    }
+
+    /**
+     * Bring the grid up to date with a collection of targets. Targets which can't currently be hit are left out of
+     *  the grid. The collection may change size or order between calls; slots whose target changed are re-registered.
+     * @param targets Every target projectiles may hit.
+     */
+    public void update(Array<? extends Collidable> targets)
+    {
+        ensureSlots(targets.size);
+
+        for (int i = 0; i < targets.size; i++) {
+            Collidable target = targets.get(i);
+
+            if (slots.get(i) != target) {
+                unregister(i);
+                slots.set(i, target);
+            }
+
+            if (!target.isCollidable()) {
+                unregister(i);
+                continue;
+            }
+
+            Rectangle box = target.getBoundingBox();
+            int firstCol  = column(box.x);
+            int firstRow  = row(box.y);
+            int lastCol   = column(box.x + box.width);
+            int lastRow   = row(box.y + box.height);
+            int offset    = i * 4;
+
+            // Nothing to do if the target is still within the same cells.
+            if (ranges[offset] == firstCol && ranges[offset + 1] == firstRow
+                && ranges[offset + 2] == lastCol && ranges[offset + 3] == lastRow) {
+                continue;
+            }
+
+            unregister(i);
+            register(i, firstCol, firstRow, lastCol, lastRow);
+        }
+
+        // Forget targets which are no longer part of the collection.
+        for (int i = targets.size; i < slots.size; i++) {
+            unregister(i);
+        }
+        slots.truncate(targets.size);
+    }
+
+    /**
+     * Find a target, registered at the last update(), which can still be hit and overlaps a rectangle.
+     * @return the overlapping target with the lowest index, or null if there is none.
+     */
+    public Collidable findOverlap(float left, float bottom, float width, float height)
+    {
+        float right   = left + width;
+        float top     = bottom + height;
+        int lastCol   = column(right);
+        int lastRow   = row(top);
+        int firstSlot = Integer.MAX_VALUE;
+
+        for (int row = row(bottom); row <= lastRow; row++) {
+            for (int col = column(left); col <= lastCol; col++) {
+                IntArray cell = cells[row * columns + col];
+
+                for (int i = 0; i < cell.size; i++) {
+                    int slot = cell.get(i);
+                    if (slot >= firstSlot) {
+                        continue;
+                    }
+                    Collidable target = slots.get(slot);
+                    if (!target.isCollidable()) {
+                        continue;
+                    }
+
+                    // Same strict comparison as Rectangle.overlaps().
+                    Rectangle box = target.getBoundingBox();
+                    if (left < box.x + box.width && right > box.x && bottom < box.y + box.height && top > box.y) {
+                        firstSlot = slot;
+                    }
+                }
+            }
+        }
+
+        return firstSlot != Integer.MAX_VALUE ? slots.get(firstSlot) : null;
+    }
+
+    /**
+     * Find the target, registered at the last update(), which a moving rectangle hits first during a step. Only the
+     *  cells covering the whole sweep are searched.
+     * @param left Left edge of the rectangle at the start of the step.
+     * @param bottom Bottom edge of the rectangle at the start of the step.
+     * @param width Width of the rectangle.
+     * @param height Height of the rectangle.
+     * @param dx Distance moved along the X axis during the step.
+     * @param dy Distance moved along the Y axis during the step.
+     * @return the target hit first, or of those hit at the same time the one with the lowest index, or null if there
+     *  is none.
+     */
+    public Collidable findSweptOverlap(float left, float bottom, float width, float height, float dx, float dy)
+    {
+        int lastCol = column(Math.max(left, left + dx) + width);
+        int lastRow = row(Math.max(bottom, bottom + dy) + height);
+
+        int firstSlot   = Integer.MAX_VALUE;
+        float firstTime = SweptCollision.NO_HIT;
+        for (int row = row(Math.min(bottom, bottom + dy)); row <= lastRow; row++) {
+            for (int col = column(Math.min(left, left + dx)); col <= lastCol; col++) {
+                IntArray cell = cells[row * columns + col];
+
+                for (int i = 0; i < cell.size; i++) {
+                    int slot          = cell.get(i);
+                    Collidable target = slots.get(slot);
+                    if (!target.isCollidable()) {
+                        continue;
+                    }
+
+                    float time = SweptCollision.timeOfImpact(left, bottom, width, height, dx, dy,
+                        target.getBoundingBox());
+                    if (time < firstTime || (time == firstTime && time != SweptCollision.NO_HIT && slot < firstSlot)) {
+                        firstSlot = slot;
+                        firstTime = time;
+                    }
+                }
+            }
+        }
+
+        return firstSlot != Integer.MAX_VALUE ? slots.get(firstSlot) : null;
+    }
+
+    /**
+     * Make room for a number of slots, marking new slots as unregistered.
+     */
+    private void ensureSlots(int count)
+    {
+        ensureRanges(count);
+
+        while (slots.size < count) {
+            slots.add(null);
+        }
+    }
+
+    /**
+     * Grow the cell ranges to hold a number of slots, marking new slots as unregistered.
+     */
+    private void ensureRanges(int count)
+    {
+        if (ranges.length < count * 4) {
+            int[] grown = new int[count * 4];
+            System.arraycopy(ranges, 0, grown, 0, ranges.length);
+            for (int i = ranges.length; i < grown.length; i += 4) {
+                grown[i] = -1;
+            }
+            ranges = grown;
+        }
+    }
+
+    /**
+     * Add a slot to every cell within a range.
+     */
+    private void register(int slot, int firstCol, int firstRow, int lastCol, int lastRow)
+    {
+        for (int row = firstRow; row <= lastRow; row++) {
+            for (int col = firstCol; col <= lastCol; col++) {
+                cells[row * columns + col].add(slot);
+            }
+        }
+
+        int offset         = slot * 4;
+        ranges[offset]     = firstCol;
+        ranges[offset + 1] = firstRow;
+        ranges[offset + 2] = lastCol;
+        ranges[offset + 3] = lastRow;
+    }
+
+    /**
+     * Remove a slot from every cell it is registered in.
+     */
+    private void unregister(int slot)
+    {
+        int offset = slot * 4;
+        if (ranges[offset] < 0) {
+            return;
+        }
+
+        for (int row = ranges[offset + 1]; row <= ranges[offset + 3]; row++) {
+            for (int col = ranges[offset]; col <= ranges[offset + 2]; col++) {
+                cells[row * columns + col].removeValue(slot);
+            }
+        }
+
+        ranges[offset] = -1;
+    }
+
+    /**
+     * @return column of the cell containing a pixel, clamped to the grid.
+     */
+    private int column(float x)
+    {
+        return clamp((int) Math.floor(x / cellSize), columns);
+    }
+
+    /**
+     * @return row of the cell containing a pixel, clamped to the grid.
+     */
+    private int row(float y)
+    {
+        return clamp((int) Math.floor(y / cellSize), rows);
+    }
+
+    /**
+     * Clamp a cell coordinate between 0 and count - 1.
+     */
+    private static int clamp(int value, int count)
+    {
+        if (value < 0) {
+            return 0;
+        }
+        if (value >= count) {
+            return count - 1;
+        }
+
+        return value;
+    }
+}
@@ -0,0 +1,138 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.Animation;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+
+/**
+ * Frames of a Sprite map, split into a grid and wrapped in a looping Animation. A SpriteSheet is immutable, and shared
+ *  by every AnimatedSprite drawn from the same Sprite map; obtain instances through SpriteSheetCache. Sprite maps are
+ *  regions of the texture atlas packed at build time, so every frame of every SpriteSheet shares one Texture.
+ *
+ * A SpriteSheet may also be created with frame dimensions only, for simulations which run without a graphics context.
+ *  Such a SpriteSheet defines the size of the objects using it, but can't be drawn.
+ */
+public class SpriteSheet
+{
+    /**
+     * Time, in seconds, each frame of the Animation is displayed.
+     */
+    private static final float FRAME_DURATION = 0.1f;
+
+    /**
+     * Atlas region of the Sprite map the frames were split from. Null if the SpriteSheet can't be drawn.
+     */
+    private final TextureRegion region;
+
+    /**
+     * Number of horizontal animation tiles in the Sprite map.
+     */
+    private final int columns;
+
+    /**
+     * Number of vertical animation tiles in the Sprite map.
+     */
+    private final int rows;
+
+    /**
+     * Width of an individual frame, in pixels.
+     */
+    private final int frameWidth;
+
+    /**
+     * Height of an individual frame, in pixels.
+     */
+    private final int frameHeight;
+
+    /**
+     * Helper for animation, deduces frame from time elapsed. Set to loop, so it is never mutated by getKeyFrame().
+     *  Null if the SpriteSheet can't be drawn.
+     */
+    private final Animation animation;
+
+    /**
+     * @param region Atlas region of the Sprite map to split.
+     * @param columns Number of horizontal animation tiles.
+     * @param rows Number of vertical animation tiles.
+     */
+    SpriteSheet(TextureRegion region, int columns, int rows)
+    {
+        this.region      = region;
+        this.columns     = columns;
+        this.rows        = rows;
+        this.frameWidth  = region.getRegionWidth() / columns;
+        this.frameHeight = region.getRegionHeight() / rows;
+
+        TextureRegion[][] temp = region.split(frameWidth, frameHeight);
+        TextureRegion[] frames = new TextureRegion[columns * rows];
+
+        // Create "table" to store animated frames.
+        int index = 0;
+        for (int i = 0; i < rows; i++) {
+            for (int j = 0; j < columns; j++) {
+                frames[index++] = temp[i][j];
+            }
+        }
+
+        animation = new Animation(FRAME_DURATION, frames);
+        animation.setPlayMode(Animation.PlayMode.LOOP);
+    }
+
+    /**
+     * Create a SpriteSheet which only has frame dimensions, and no TextureRegion to draw.
+     * @param frameWidth Width of an individual frame, in pixels.
+     * @param frameHeight Height of an individual frame, in pixels.
+     */
+    public SpriteSheet(int frameWidth, int frameHeight)
+    {
+        this.region      = null;
+        this.columns     = 1;
+        this.rows        = 1;
+        this.frameWidth  = frameWidth;
+        this.frameHeight = frameHeight;
+        this.animation   = null;
+    }
+
+    /**
+     * Get the frame to display after a given amount of time has passed.
+     * @param stateTime Seconds since the animation started.
+     * @return the current frame.
+     */
+    public TextureRegion getKeyFrame(float stateTime)
+    {
+        return animation.getKeyFrame(stateTime);
+    }
+
+    /**
+     * @return atlas region of the Sprite map. Its first frame is at its top-left corner. Null if the SpriteSheet
+     *  can't be drawn.
+     */
+    public TextureRegion getRegion()
+    {
+        return region;
+    }
+
+    /**
+     * @return width of an individual frame, in pixels.
+     */
+    public int getFrameWidth()
+    {
+        return frameWidth;
+    }
+
+    /**
+     * @return height of an individual frame, in pixels.
+     */
+    public int getFrameHeight()
+    {
+        return frameHeight;
+    }
+
+    /**
+     * Check if this SpriteSheet was split from the given atlas region and grid.
+     * @return TRUE if region and grid match.
+     */
+    boolean matches(TextureRegion region, int columns, int rows)
+    {
+        return this.region == region && this.columns == columns && this.rows == rows;
+    }
+}
@@ -0,0 +1,71 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Registry of SpriteSheets, keyed by atlas region and frame grid. Splitting a region into frames happens once per
+ *  Sprite map, no matter how many AnimatedSprites are created from it.
+ */
+public final class SpriteSheetCache
+{
+    /**
+     * Default number of horizontal animation tiles in a Sprite map.
+     */
+    public static final int DEFAULT_COLUMNS = 2;
+
+    /**
+     * Default number of vertical animation tiles in a Sprite map.
+     */
+    public static final int DEFAULT_ROWS = 2;
+
+    /**
+     * Every SpriteSheet created so far. There are only a handful of Sprite maps, so a linear scan beats hashing.
+     */
+    private static final Array<SpriteSheet> sheets = new Array<SpriteSheet>();
+
+    private SpriteSheetCache()
+    {
+    }
+
+    /**
+     * Get the shared SpriteSheet for a Sprite map using the default 2x2 frame grid.
+     * @param region Atlas region of the Sprite map.
+     * @return cached SpriteSheet.
+     */
+    public static SpriteSheet get(TextureRegion region)
+    {
+        return get(region, DEFAULT_COLUMNS, DEFAULT_ROWS);
+    }
+
+    /**
+     * Get the shared SpriteSheet for a Sprite map, splitting it into frames the first time it is requested.
+     * @param region Atlas region of the Sprite map.
+     * @param columns Number of horizontal animation tiles.
+     * @param rows Number of vertical animation tiles.
+     * @return cached SpriteSheet.
+     */
+    public static SpriteSheet get(TextureRegion region, int columns, int rows)
+    {
+        for (int i = 0; i < sheets.size; i++) {
+            SpriteSheet sheet = sheets.get(i);
+            if (sheet.matches(region, columns, rows)) {
+                return sheet;
+            }
+        }
+
+        SpriteSheet sheet = new SpriteSheet(region, columns, rows);
+        sheets.add(sheet);
+
+        return sheet;
+    }
+
+    /**
+     * Forget every cached SpriteSheet. Must be called when the atlas they were split from is disposed, as the
+     *  cache outlives the game instance on Android.
+     */
+    public static void clear()
+    {
+        sheets.clear();
+    }
+}
@@ -0,0 +1,89 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteCache;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Matrix4;
+
+/**
+ * The layer drawn behind everything else: an image which never moves, stretched over the whole screen. Its vertices
+ *  are built once into a SpriteCache, which keeps them on the GPU, so drawing it each frame submits no vertices and
+ *  takes no room in the SpriteBatch. It also keeps the background Texture out of the SpriteBatch, which then only
+ *  draws from the atlas.
+ *
+ * If the image has no alpha channel, it overwrites every pixel of the screen each frame. The screen then needn't be
+ *  cleared first (see coversScreen()), and the image is drawn with blending disabled, which saves a full screen of
+ *  fill rate on low-end GPUs.
+ */
+public class StaticLayer
+{
+    /**
+     * Holds the vertices of the image.
+     */
+    private final SpriteCache cache;
+
+    /**
+     * Identifier of the image's vertices in the cache.
+     */
+    private final int cacheId;
+
+    /**
+     * Does the image have no alpha channel.
+     */
+    private final boolean opaque;
+
+    /**
+     * Build the layer. Must be called on the render thread.
+     * @param image Image to draw. Only a Texture loaded without an alpha channel is treated as opaque.
+     * @param width Width of the screen, in world units.
+     * @param height Height of the screen, in world units.
+     */
+    public StaticLayer(Texture image, float width, float height)
+    {
+        Pixmap.Format format = image.getTextureData().getFormat();
+        opaque               = format == Pixmap.Format.RGB888 || format == Pixmap.Format.RGB565;
+
+        cache = new SpriteCache(1, false);
+        cache.beginCache();
+        cache.add(new TextureRegion(image), 0, 0, width, height);
+        cacheId = cache.endCache();
+    }
+
+    /**
+     * @return TRUE if drawing the layer overwrites every pixel of the screen, so clearing it first is wasted work.
+     */
+    public boolean coversScreen()
+    {
+        return opaque;
+    }
+
+    /**
+     * Draw the layer. Call it before anything else is drawn, outside of SpriteBatch.begin() and end().
+     * @param projection Projection of the camera the screen is drawn with.
+     */
+    public void draw(Matrix4 projection)
+    {
+        if (opaque) {
+            Gdx.gl.glDisable(GL20.GL_BLEND);
+        } else {
+            Gdx.gl.glEnable(GL20.GL_BLEND);
+            Gdx.gl.glBlendFunc(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
+        }
+
+        cache.setProjectionMatrix(projection);
+        cache.begin();
+        cache.draw(cacheId);
+        cache.end();
+    }
+
+    /**
+     * Release the cache's GPU buffers and shader. The image is owned by the caller.
+     */
+    public void dispose()
+    {
+        cache.dispose();
+    }
+}
@@ -0,0 +1,89 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.math.Rectangle;
+
+/**
+ * Continuous collision test between a moving box and a box which stays still during the step. A projectile which
+ *  moves further than its own size in one step may skip over a ship entirely between two discrete tests; testing the
+ *  whole box swept from the previous to the current position catches it. Projectiles which move less than their own
+ *  size have their previous and current boxes overlap, so the discrete test of the current box already covers the
+ *  swept area (a target overlapping only the previous box was overlapping it last step, and was tested then).
+ *
+ * The test treats the target as still, at its current position. Ships move a few pixels per step, far less than their
+ *  own size, so only the projectile's motion needs sweeping.
+ */
+public final class SweptCollision
+{
+    /**
+     * Time of impact returned when the boxes don't meet during the step.
+     */
+    public static final float NO_HIT = Float.MAX_VALUE;
+
+    private SweptCollision()
+    {
+    }
+
+    /**
+     * @return TRUE if a box moved further than its own size along either axis, so the discrete test may miss a hit.
+     */
+    public static boolean needsSweep(float dx, float dy, float width, float height)
+    {
+        return Math.abs(dx) >= width || Math.abs(dy) >= height;
+    }
+
+    /**
+     * Find when a moving box first overlaps a still one, treating the sweep as a ray against the target grown by the
+     *  moving box's size (slab test). Uses the same strict comparison as Rectangle.overlaps(), so boxes which only
+     *  touch don't collide.
+     * @param left Left edge of the moving box at the start of the step.
+     * @param bottom Bottom edge of the moving box at the start of the step.
+     * @param width Width of the moving box.
+     * @param height Height of the moving box.
+     * @param dx Distance moved along the X axis during the step.
+     * @param dy Distance moved along the Y axis during the step.
+     * @param target Box which stays still.
+     * @return fraction of the step at which the boxes start overlapping, from 0 to 1 (below 0 if they already
+     *  overlapped at the start), or NO_HIT.
+     */
+    public static float timeOfImpact(float left, float bottom, float width, float height, float dx, float dy,
+                                     Rectangle target)
+    {
+        float enter = -Float.MAX_VALUE;
+        float exit  = Float.MAX_VALUE;
+
+        // X axis: the moving box's left edge must be strictly between these for the boxes to overlap.
+        float min = target.x - width;
+        float max = target.x + target.width;
+        if (dx == 0f) {
+            if (left <= min || left >= max) {
+                return NO_HIT;
+            }
+        } else {
+            float t1 = (min - left) / dx;
+            float t2 = (max - left) / dx;
+            enter    = Math.max(enter, Math.min(t1, t2));
+            exit     = Math.min(exit, Math.max(t1, t2));
+        }
+
+        // Y axis, likewise for the bottom edge.
+        min = target.y - height;
+        max = target.y + target.height;
+        if (dy == 0f) {
+            if (bottom <= min || bottom >= max) {
+                return NO_HIT;
+            }
+        } else {
+            float t1 = (min - bottom) / dy;
+            float t2 = (max - bottom) / dy;
+            enter    = Math.max(enter, Math.min(t1, t2));
+            exit     = Math.min(exit, Math.max(t1, t2));
+        }
+
+        // The overlap has to last a while, start before the end of the step, and not be over before it starts.
+        if (enter >= exit || enter > 1f || exit <= 0f) {
+            return NO_HIT;
+        }
+
+        return enter;
+    }
+}
@@ -0,0 +1,108 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.graphics.g2d.Batch;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFontCache;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.StringBuilder;
+
+/**
+ * A piece of text on screen, with its layout and glyph vertices cached. Setting the text it already shows is free, so
+ *  scores and counters can be set every frame; the layout is only rebuilt when a character actually changes. Create
+ *  labels through TextRenderer, which owns their fonts.
+ */
+public class TextLabel
+{
+    /**
+     * Font the label is drawn with.
+     */
+    private final BitmapFont font;
+
+    /**
+     * Line breaks and glyph positions of the current text.
+     */
+    private final GlyphLayout layout = new GlyphLayout();
+
+    /**
+     * Vertices of every glyph of the current text, ready to be handed to a Batch.
+     */
+    private final BitmapFontCache cache;
+
+    /**
+     * Copy of the current text, to detect changes without allocating.
+     */
+    private final StringBuilder text = new StringBuilder();
+
+    /**
+     * @param font Font the label is drawn with.
+     */
+    TextLabel(BitmapFont font)
+    {
+        this.font  = font;
+        this.cache = font.newFontCache();
+    }
+
+    /**
+     * Set the text to display. The layout is rebuilt only if the text differs from the current one.
+     * @param newText Text to display; may contain line breaks. Not retained, so a reused buffer may be passed.
+     */
+    public void setText(CharSequence newText)
+    {
+        if (equalsText(newText)) {
+            return;
+        }
+
+        text.setLength(0);
+        text.append(newText);
+
+        layout.setText(font, text);
+        cache.setText(layout, 0, 0);
+    }
+
+    /**
+     * Draw the label.
+     * @param batch Batch which has already begun drawing.
+     * @param x Pixel position of the left edge of the text.
+     * @param y Pixel position of the top of the first line of text.
+     */
+    public void draw(Batch batch, float x, float y)
+    {
+        cache.setPosition(x, y);
+        cache.draw(batch);
+    }
+
+    /**
+     * @return width of the current text, in pixels.
+     */
+    public float getWidth()
+    {
+        return layout.width;
+    }
+
+    /**
+     * @return height of the current text, in pixels.
+     */
+    public float getHeight()
+    {
+        return layout.height;
+    }
+
+    /**
+     * Compare a text with the current one, character by character.
+     * @return TRUE if both have the same characters.
+     */
+    private boolean equalsText(CharSequence other)
+    {
+        if (other.length() != text.length) {
+            return false;
+        }
+
+        for (int i = 0; i < text.length; i++) {
+            if (text.chars[i] != other.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
@@ -0,0 +1,80 @@
+package com.stratigos.nullapointershooter;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Owns the fonts used for text on screen, and creates TextLabels drawn with them. Fonts are loaded once per scale, the
+ *  first time a label of that scale is created, and every scale shares the Texture of the default libGDX font, so
+ *  labels of any size are drawn without switching Textures.
+ */
+public class TextRenderer
+{
+    /**
+     * Description of the default libGDX font (15px Arial), bundled with gdx.jar.
+     */
+    private static final String FONT_FILE = "com/badlogic/gdx/utils/arial-15.fnt";
+
+    /**
+     * Font at scale 1, which owns the shared Texture.
+     */
+    private final BitmapFont defaultFont = new BitmapFont();
+
+    /**
+     * Every font loaded so far, including the default one. There are only a handful of scales, so a linear scan beats
+     *  hashing.
+     */
+    private final Array<BitmapFont> fonts = new Array<BitmapFont>();
+
+    public TextRenderer()
+    {
+        fonts.add(defaultFont);
+    }
+
+    /**
+     * Create a label, drawn with the font of the given scale.
+     * @param scale Size of the text, relative to the 15px default font.
+     * @return a new, empty TextLabel.
+     */
+    public TextLabel createLabel(float scale)
+    {
+        return new TextLabel(getFont(scale));
+    }
+
+    /**
+     * Get the font of a given scale, loading it the first time it is requested.
+     * @param scale Size of the text, relative to the 15px default font.
+     * @return shared BitmapFont.
+     */
+    public BitmapFont getFont(float scale)
+    {
+        for (int i = 0; i < fonts.size; i++) {
+            BitmapFont font = fonts.get(i);
+            if (font.getData().scaleX == scale) {
+                return font;
+            }
+        }
+
+        // Only parse the glyph metrics again; the glyphs are drawn from the default font's Texture.
+        FileHandle fontFile = Gdx.files.classpath(FONT_FILE);
+        BitmapFontData data = new BitmapFontData(fontFile, false);
+        BitmapFont font     = new BitmapFont(data, defaultFont.getRegion(), true);
+        font.getData().setScale(scale);
+        fonts.add(font);
+
+        return font;
+    }
+
+    /**
+     * Dispose of the shared font Texture. Labels can't be drawn afterwards.
+     */
+    public void dispose()
+    {
+        // Only the default font owns its Texture; disposing the others does nothing.
+        defaultFont.dispose();
+        fonts.clear();
+    }
+}
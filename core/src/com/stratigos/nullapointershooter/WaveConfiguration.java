@@ -0,0 +1,132 @@
+package com.stratigos.nullapointershooter;
+
+/**
+ * Tunables of the alien waves: how many aliens attack, how they respawn, move and fire, and the player's rate of fire
+ *  they are balanced against. The defaults make a game which starts with a single alien, as the original did, and
+ *  adds one more with each wave.
+ */
+public class WaveConfiguration
+{
+    /**
+     * Value of respawnDelay which disables individual respawns, so a wave ends once all of its aliens are destroyed.
+     */
+    public static final float NO_RESPAWN = -1f;
+
+    /**
+     * Number of aliens in the first wave.
+     */
+    public int firstWaveEnemies = 1;
+
+    /**
+     * Number of aliens added with each following wave.
+     */
+    public int enemiesPerWave = 1;
+
+    /**
+     * Maximum number of aliens in a wave. Every alien is allocated up front, so this also bounds memory.
+     */
+    public int maxEnemies = 8;
+
+    /**
+     * Seconds between the last alien of a wave being destroyed and the next wave spawning.
+     */
+    public float timeBetweenWaves = 2f;
+
+    /**
+     * Seconds before a destroyed alien respawns, or NO_RESPAWN.
+     */
+    public float respawnDelay = NO_RESPAWN;
+
+    /**
+     * Height of the band below the top of the screen in which aliens spawn, in pixels. With 0, every alien flies along
+     *  the top edge.
+     */
+    public float spawnBandHeight = 120f;
+
+    /**
+     * Average number of times each alien fires per second.
+     */
+    public float fireRate = 1f;
+
+    /**
+     * Arrangement of the shots fired at once.
+     */
+    public ShotPattern shotPattern = ShotPattern.SINGLE;
+
+    /**
+     * Number of shots fired at once by the SPREAD and RING patterns.
+     */
+    public int shotsPerPattern = 5;
+
+    /**
+     * Angle covered by the SPREAD pattern, in degrees.
+     */
+    public float spreadAngle = 60f;
+
+    /**
+     * Speed of alien shots, in pixels per second.
+     */
+    public float shotSpeed = 300f;
+
+    /**
+     * Speed of the aliens, in pixels per second.
+     */
+    public float enemySpeed = Enemy.ENEMY_SPEED;
+
+    /**
+     * Each alien turns around with a chance of one in this many every 60th of a second.
+     */
+    public int directionChangeOdds = 41;
+
+    /**
+     * Number of AI decisions (turn around, fire) per second of each alien near the player's ship.
+     */
+    public float decisionRate = 20f;
+
+    /**
+     * Number of AI decisions per second of each alien far from the player's ship.
+     */
+    public float offFocusDecisionRate = 5f;
+
+    /**
+     * Horizontal distance from the player's ship within which an alien is near it, in pixels.
+     */
+    public float focusDistance = 200f;
+
+    /**
+     * Maximum number of AI decisions made per step. Aliens due for a decision beyond it wait for the next step.
+     */
+    public int decisionsPerStep = 64;
+
+    /**
+     * Minimum seconds between two shots of the player.
+     */
+    public float playerShotInterval = ShotManager.MINIMUM_TIME_BETWEEN_SHOTS;
+
+    /**
+     * Keep the player's ship alive when it is hit, so the game never ends. Meant for stress runs.
+     */
+    public boolean invinciblePlayer = false;
+
+    /**
+     * Create the built-in stress scenario: 500 aliens firing rings of shots, with about 20 thousand shots in flight
+     *  once it has settled, and a player who can't be destroyed. A repeatable worst case for frame time work.
+     * @return a new configuration.
+     */
+    public static WaveConfiguration stress()
+    {
+        WaveConfiguration config = new WaveConfiguration();
+        config.firstWaveEnemies  = 500;
+        config.enemiesPerWave    = 0;
+        config.maxEnemies        = 500;
+        config.respawnDelay      = 0.5f;
+        config.spawnBandHeight   = 200f;
+        config.fireRate          = 1.25f;
+        config.shotPattern       = ShotPattern.RING;
+        config.shotsPerPattern   = 16;
+        config.shotSpeed         = 150f;
+        config.invinciblePlayer  = true;
+
+        return config;
+    }
+}
@@ -0,0 +1,31 @@
+package com.stratigos.nullapointershooter.desktop;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning a slice of asset loading on the render thread.
+ */
+@Name("nullapointershooter.AssetLoad")
+@Label("Asset Load")
+@Category({"Null-A-Pointer Shooter", "Loading"})
+@Description("A slice of asset loading on the render thread")
+@StackTrace(false)
+class AssetLoadEvent extends Event
+{
+    /**
+     * Number of assets loaded so far.
+     */
+    @Label("Loaded Assets")
+    int loadedAssets;
+
+    /**
+     * Fraction of assets loaded so far, from 0 to 1.
+     */
+    @Label("Progress")
+    float progress;
+}
@@ -0,0 +1,31 @@
+package com.stratigos.nullapointershooter.desktop;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning a SpriteBatch flush which issued a draw call.
+ */
+@Name("nullapointershooter.BatchFlush")
+@Label("Batch Flush")
+@Category({"Null-A-Pointer Shooter", "Rendering"})
+@Description("A SpriteBatch flush, which issued one draw call")
+@StackTrace(false)
+class BatchFlushEvent extends Event
+{
+    /**
+     * Draw calls issued since the batch began, including this one.
+     */
+    @Label("Render Calls")
+    int renderCalls;
+
+    /**
+     * Texture switches since the batch began.
+     */
+    @Label("Texture Switches")
+    int textureSwitches;
+}
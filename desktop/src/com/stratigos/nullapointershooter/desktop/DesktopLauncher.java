@@ -2,11 +2,97 @@ package com.stratigos.nullapointershooter.desktop;
 
 import com.badlogic.gdx.backends.lwjgl.LwjglApplication;
 import com.badlogic.gdx.backends.lwjgl.LwjglApplicationConfiguration;
+import com.badlogic.gdx.utils.GdxRuntimeException;
 import com.stratigos.nullapointershooter.ShooterGame;
+import com.stratigos.nullapointershooter.ShooterGameConfiguration;
+import com.stratigos.nullapointershooter.WaveConfiguration;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.text.ParseException;
+
+/**
+ * Usage: DesktopLauncher [--hud] [--perf-csv=file] [--stress] [--record=file | --replay=file] [--threads=n]
+ *                       [--rewind=ticks] [--jfr[=file]] [--fps=n] [--background-fps=n] [--continuous]
+ *  --hud               show the performance overlay from the start (F3 toggles it)
+ *  --perf-csv=file     stream per-frame performance samples to a CSV file
+ *  --stress            play the built-in stress scenario: 500 aliens and about 20k shots
+ *  --record=file       record the input of every tick, to replay the session exactly
+ *  --replay=file       replay a recorded session instead of reading the mouse
+ *  --threads=n         move aliens and shots on n threads (default: one per core, 1 to disable)
+ *  --rewind=ticks      number of steps kept to rewind after a hit, with R (default 300, 0 to disable)
+ *  --jfr               emit Java Flight Recorder events for frames, phases, batch flushes, spawns and asset loads, for
+ *                      recordings started with -XX:StartFlightRecording or jcmd
+ *  --jfr=file          also record them, with the "profile" settings, and write the recording to a file on exit
+ *  --fps=n             frame rate cap while the window has focus (default 60)
+ *  --background-fps=n  frame rate cap while the window doesn't have focus (default 10, -1 to stop drawing)
+ *  --continuous        keep drawing every frame while the game is over, instead of only on input
+ */
 public class DesktopLauncher {
+	/**
+	 * Default frame rate caps, with and without focus. Nothing needs to be fast in a window which isn't watched.
+	 */
+	private static final int FOREGROUND_FPS = 60;
+	private static final int BACKGROUND_FPS = 10;
+
 	public static void main (String[] arg) {
+		ShooterGameConfiguration gameConfig = new ShooterGameConfiguration();
+		int foregroundFps = FOREGROUND_FPS;
+		int backgroundFps = BACKGROUND_FPS;
+		for (String option : arg) {
+			if (option.equals("--hud")) {
+				gameConfig.showPerformanceHud = true;
+			} else if (option.startsWith("--perf-csv=")) {
+				gameConfig.performanceCsvFile = option.substring("--perf-csv=".length());
+			} else if (option.equals("--stress")) {
+				gameConfig.waves = WaveConfiguration.stress();
+			} else if (option.startsWith("--record=")) {
+				gameConfig.recordFile = option.substring("--record=".length());
+			} else if (option.startsWith("--replay=")) {
+				gameConfig.replayFile = option.substring("--replay=".length());
+			} else if (option.startsWith("--threads=")) {
+				gameConfig.updateThreads = Integer.parseInt(option.substring("--threads=".length()));
+			} else if (option.startsWith("--rewind=")) {
+				gameConfig.rewindTicks = Integer.parseInt(option.substring("--rewind=".length()));
+			} else if (option.startsWith("--fps=")) {
+				foregroundFps = Integer.parseInt(option.substring("--fps=".length()));
+			} else if (option.startsWith("--background-fps=")) {
+				backgroundFps = Integer.parseInt(option.substring("--background-fps=".length()));
+			} else if (option.equals("--continuous")) {
+				gameConfig.renderOnDemand = false;
+			} else if (option.equals("--jfr")) {
+				gameConfig.eventListener = new JfrEventListener();
+			} else if (option.startsWith("--jfr=")) {
+				gameConfig.eventListener = new JfrEventListener();
+				startFlightRecording(option.substring("--jfr=".length()));
+			} else {
+				throw new IllegalArgumentException("Unknown option: " + option);
+			}
+		}
+
 		LwjglApplicationConfiguration config = new LwjglApplicationConfiguration();
-		new LwjglApplication(new ShooterGame(), config);
+		config.foregroundFPS = foregroundFps;
+		config.backgroundFPS = backgroundFps;
+		new LwjglApplication(new ShooterGame(gameConfig), config);
+	}
+
+	/**
+	 * Start a Java Flight Recorder recording with the JDK's "profile" settings, written to a file when the JVM exits.
+	 */
+	private static void startFlightRecording (String fileName) {
+		try {
+			Recording recording = new Recording(Configuration.getConfiguration("profile"));
+			recording.setName("nullapointershooter");
+			recording.setToDisk(true);
+			recording.setDumpOnExit(true);
+			recording.setDestination(Paths.get(fileName));
+			recording.start();
+		} catch (IOException e) {
+			throw new GdxRuntimeException("Couldn't start flight recording: " + fileName, e);
+		} catch (ParseException e) {
+			throw new GdxRuntimeException("Couldn't start flight recording: " + fileName, e);
+		}
 	}
 }
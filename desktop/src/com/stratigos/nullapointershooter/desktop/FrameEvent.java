@@ -0,0 +1,35 @@
+package com.stratigos.nullapointershooter.desktop;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning a whole frame: asset loading or simulation steps, drawing, and the overlay.
+ */
+@Name("nullapointershooter.Frame")
+@Label("Frame")
+@Category({"Null-A-Pointer Shooter", "Game Loop"})
+@Description("One rendered frame of the game")
+@StackTrace(false)
+class FrameEvent extends Event
+{
+    /**
+     * Number of simulation steps run during the frame.
+     */
+    @Label("Steps")
+    int steps;
+
+    /**
+     * Entity counts at the end of the frame.
+     */
+    @Label("Live Aliens")
+    int aliens;
+    @Label("Player Shots")
+    int playerShots;
+    @Label("Alien Shots")
+    int alienShots;
+}
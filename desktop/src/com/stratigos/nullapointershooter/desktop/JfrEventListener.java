@@ -0,0 +1,175 @@
+package com.stratigos.nullapointershooter.desktop;
+
+import com.stratigos.nullapointershooter.FramePhase;
+import com.stratigos.nullapointershooter.GameEventListener;
+import com.stratigos.nullapointershooter.GameWorld;
+
+/**
+ * Emits Java Flight Recorder events for frames, the phases of each simulation step, SpriteBatch flushes, alien spawns
+ *  and asset loading, so stutters can be lined up with garbage collections, JIT compilation and I/O in the same
+ *  recording. Events carry the number of live aliens and shots in flight.
+ *
+ * While no recording is running, every event type is disabled, and each call returns after checking one flag without
+ *  allocating. Events are only created while a recording wants them.
+ */
+public class JfrEventListener implements GameEventListener
+{
+    /**
+     * Every phase, indexed by ordinal.
+     */
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    /**
+     * Instances never committed, only asked whether their event type is enabled.
+     */
+    private final FrameEvent frameProbe           = new FrameEvent();
+    private final PhaseEvent phaseProbe           = new PhaseEvent();
+    private final BatchFlushEvent batchFlushProbe = new BatchFlushEvent();
+    private final SpawnEvent spawnProbe           = new SpawnEvent();
+    private final AssetLoadEvent assetLoadProbe   = new AssetLoadEvent();
+
+    /**
+     * Events begun and not yet ended. Null when their type was disabled at the start.
+     */
+    private FrameEvent frame;
+    private final PhaseEvent[] phases = new PhaseEvent[PHASES.length];
+    private BatchFlushEvent batchFlush;
+    private AssetLoadEvent assetLoad;
+
+    /**
+     * The simulation, as given at the start of the frame. Null while assets are loading.
+     */
+    private GameWorld world;
+
+    @Override
+    public void frameStarted(GameWorld world)
+    {
+        this.world = world;
+        if (frameProbe.isEnabled()) {
+            frame = new FrameEvent();
+            frame.begin();
+        }
+    }
+
+    @Override
+    public void frameEnded(GameWorld world, int steps)
+    {
+        if (frame == null) {
+            return;
+        }
+
+        frame.end();
+        if (frame.shouldCommit()) {
+            frame.steps = steps;
+            if (world != null) {
+                frame.aliens      = world.getEnemyWaves().getLiveEnemies();
+                frame.playerShots = world.getShotManager().getPlayerShots().size();
+                frame.alienShots  = world.getShotManager().getEnemyShots().size();
+            }
+            frame.commit();
+        }
+        frame = null;
+    }
+
+    @Override
+    public void phaseStarted(FramePhase phase)
+    {
+        if (phaseProbe.isEnabled()) {
+            PhaseEvent event = new PhaseEvent();
+            event.begin();
+            phases[phase.ordinal()] = event;
+        }
+    }
+
+    @Override
+    public void phaseEnded(FramePhase phase)
+    {
+        if (phase == FramePhase.ENEMIES) {
+            commitSpawns();
+        }
+
+        PhaseEvent event = phases[phase.ordinal()];
+        if (event == null) {
+            return;
+        }
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase.name();
+            if (world != null) {
+                event.aliens      = world.getEnemyWaves().getLiveEnemies();
+                event.playerShots = world.getShotManager().getPlayerShots().size();
+                event.alienShots  = world.getShotManager().getEnemyShots().size();
+            }
+            event.commit();
+        }
+        phases[phase.ordinal()] = null;
+    }
+
+    @Override
+    public void batchFlushStarted()
+    {
+        if (batchFlushProbe.isEnabled()) {
+            batchFlush = new BatchFlushEvent();
+            batchFlush.begin();
+        }
+    }
+
+    @Override
+    public void batchFlushEnded(boolean drawn, int renderCalls, int textureSwitches)
+    {
+        if (batchFlush == null) {
+            return;
+        }
+
+        // Flushing an empty batch is routine, and not worth an event.
+        batchFlush.end();
+        if (drawn && batchFlush.shouldCommit()) {
+            batchFlush.renderCalls     = renderCalls;
+            batchFlush.textureSwitches = textureSwitches;
+            batchFlush.commit();
+        }
+        batchFlush = null;
+    }
+
+    @Override
+    public void assetLoadStarted()
+    {
+        if (assetLoadProbe.isEnabled()) {
+            assetLoad = new AssetLoadEvent();
+            assetLoad.begin();
+        }
+    }
+
+    @Override
+    public void assetLoadEnded(int loadedAssets, float progress)
+    {
+        if (assetLoad == null) {
+            return;
+        }
+
+        assetLoad.end();
+        if (assetLoad.shouldCommit()) {
+            assetLoad.loadedAssets = loadedAssets;
+            assetLoad.progress     = progress;
+            assetLoad.commit();
+        }
+        assetLoad = null;
+    }
+
+    /**
+     * Mark the aliens spawned during the step, if any.
+     */
+    private void commitSpawns()
+    {
+        if (world == null || world.getEnemyWaves().getSpawned() == 0 || !spawnProbe.isEnabled()) {
+            return;
+        }
+
+        SpawnEvent event = new SpawnEvent();
+        event.wave       = world.getEnemyWaves().getWave();
+        event.spawned    = world.getEnemyWaves().getSpawned();
+        event.aliens     = world.getEnemyWaves().getLiveEnemies();
+        event.commit();
+    }
+}
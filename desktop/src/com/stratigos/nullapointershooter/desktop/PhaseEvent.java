@@ -0,0 +1,35 @@
+package com.stratigos.nullapointershooter.desktop;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event spanning one phase of a simulation step, or the drawing of a frame.
+ */
+@Name("nullapointershooter.Phase")
+@Label("Frame Phase")
+@Category({"Null-A-Pointer Shooter", "Game Loop"})
+@Description("One phase of a simulation step: input, player, aliens, shots, collisions; or drawing")
+@StackTrace(false)
+class PhaseEvent extends Event
+{
+    /**
+     * Name of the FramePhase.
+     */
+    @Label("Phase")
+    String phase;
+
+    /**
+     * Entity counts at the end of the phase.
+     */
+    @Label("Live Aliens")
+    int aliens;
+    @Label("Player Shots")
+    int playerShots;
+    @Label("Alien Shots")
+    int alienShots;
+}
@@ -0,0 +1,37 @@
+package com.stratigos.nullapointershooter.desktop;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder event marking the aliens spawned during a simulation step, whether a new wave or respawns.
+ */
+@Name("nullapointershooter.Spawn")
+@Label("Alien Spawn")
+@Category({"Null-A-Pointer Shooter", "Game Loop"})
+@Description("Aliens spawned or respawned during a simulation step")
+@StackTrace(false)
+class SpawnEvent extends Event
+{
+    /**
+     * Number of the current wave.
+     */
+    @Label("Wave")
+    int wave;
+
+    /**
+     * Number of aliens spawned during the step.
+     */
+    @Label("Spawned")
+    int spawned;
+
+    /**
+     * Number of aliens alive after the step.
+     */
+    @Label("Live Aliens")
+    int aliens;
+}
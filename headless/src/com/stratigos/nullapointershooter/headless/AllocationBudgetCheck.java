@@ -0,0 +1,102 @@
+package com.stratigos.nullapointershooter.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.stratigos.nullapointershooter.FramePhase;
+import com.stratigos.nullapointershooter.GameClock;
+import com.stratigos.nullapointershooter.GameWorld;
+import com.stratigos.nullapointershooter.ParticleSystem;
+import com.stratigos.nullapointershooter.ShooterGameConfiguration;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Properties;
+
+/**
+ * Regression check for per-step allocations. Plays a scripted session in a headless GameWorld, with particles as in
+ *  the game, and fails (exit code 1) if any phase of a step allocated more bytes than its budget, once the warm-up
+ *  period is over.
+ *
+ * Budgets are read from a properties file: one entry per FramePhase name giving the maximum bytes a single step may
+ *  allocate in that phase (phases without an entry are unbudgeted), plus "ticks" and "warmupTicks".
+ *  Usage: AllocationBudgetCheck budgets.properties
+ *
+ * Run it on an interpreted JVM (-Xint), as the checkAllocations task does. Escape analysis would otherwise hide
+ *  allocations which Android's runtime does perform, and JIT compilation itself occasionally shows up as a few
+ *  hundred bytes in whichever phase is running.
+ */
+public class AllocationBudgetCheck extends ApplicationAdapter
+{
+    /**
+     * Tag for log output.
+     */
+    private static final String TAG = "AllocationBudget";
+
+    /**
+     * Budgets and scenario length.
+     */
+    private final Properties budgets;
+
+    /**
+     * @param budgets Budgets and scenario length.
+     */
+    public AllocationBudgetCheck(Properties budgets)
+    {
+        this.budgets = budgets;
+    }
+
+    public static void main(String[] arg) throws IOException
+    {
+        Properties budgets = new Properties();
+        InputStream input  = new FileInputStream(arg[0]);
+        try {
+            budgets.load(input);
+        } finally {
+            input.close();
+        }
+
+        new HeadlessApplication(new AllocationBudgetCheck(budgets), new HeadlessApplicationConfiguration());
+    }
+
+    @Override
+    public void create()
+    {
+        long warmupTicks = Long.parseLong(budgets.getProperty("warmupTicks", "600"));
+        long ticks       = Long.parseLong(budgets.getProperty("ticks", "36000"));
+
+        GameWorld world           = HeadlessWorlds.createWorld();
+        AllocationTracker tracker = new AllocationTracker();
+        world.setPhaseListener(tracker);
+        world.setParticleSystem(new ParticleSystem(new ShooterGameConfiguration().maxParticles));
+
+        // Let pools and stores grow to their steady-state size before measuring.
+        for (long i = 0; i < warmupTicks + ticks; i++) {
+            if (i == warmupTicks) {
+                tracker.reset();
+            }
+
+            HeadlessWorlds.playScripted(world);
+            world.update(GameClock.TIME_STEP);
+            tracker.endTick();
+        }
+
+        boolean passed = true;
+        for (FramePhase phase : FramePhase.values()) {
+            String budget = budgets.getProperty(phase.name());
+            long maxBytes = tracker.getMaxBytes(phase);
+            boolean over  = budget != null && maxBytes > Long.parseLong(budget.trim());
+
+            Gdx.app.log(TAG, String.format("%-10s max %6d B/tick, avg %8.2f B/tick, budget %s%s", phase, maxBytes,
+                tracker.getAverageBytes(phase), budget == null ? "-" : budget.trim() + " B/tick",
+                over ? "  OVER BUDGET" : ""));
+            passed &= !over;
+        }
+        Gdx.app.log(TAG, (passed ? "PASSED" : "FAILED") + " over " + tracker.getTicks() + " ticks");
+
+        // The headless backend has no way to report an exit code, so leave directly.
+        System.exit(passed ? 0 : 1);
+    }
+}
@@ -0,0 +1,155 @@
+package com.stratigos.nullapointershooter.headless;
+
+import com.stratigos.nullapointershooter.FramePhase;
+import com.stratigos.nullapointershooter.FramePhaseListener;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes allocated by each phase of a simulation step, using the JVM's per-thread allocation counter.
+ *  Only available on HotSpot-based desktop JVMs, which is why this lives in the headless module and not in core.
+ *
+ * Register as a GameWorld's phase listener, and call endTick() after each step. The cost of reading the counter
+ *  itself (some JVMs allocate a small array per read) is calibrated at creation, and subtracted from each sample.
+ */
+public class AllocationTracker implements FramePhaseListener
+{
+    /**
+     * Cached copy of FramePhase.values(), which allocates a new array on each call.
+     */
+    private static final FramePhase[] PHASES = FramePhase.values();
+
+    /**
+     * Number of back-to-back counter reads used to calibrate the cost of a read.
+     */
+    private static final int CALIBRATION_READS = 1000;
+
+    /**
+     * Source of the per-thread allocation counter.
+     */
+    private final com.sun.management.ThreadMXBean threads;
+
+    /**
+     * Thread the simulation runs on. Phases running on other threads are not measured.
+     */
+    private final long threadId;
+
+    /**
+     * Bytes allocated by reading the counter once.
+     */
+    private final long readCost;
+
+    /**
+     * Counter value when each phase started.
+     */
+    private final long[] phaseStart = new long[PHASES.length];
+
+    /**
+     * Bytes allocated by each phase during the current step.
+     */
+    private final long[] tickBytes = new long[PHASES.length];
+
+    /**
+     * Most bytes allocated by each phase in a single step.
+     */
+    private final long[] maxBytes = new long[PHASES.length];
+
+    /**
+     * Bytes allocated by each phase across all steps.
+     */
+    private final long[] totalBytes = new long[PHASES.length];
+
+    /**
+     * Number of steps measured.
+     */
+    private long ticks = 0;
+
+    /**
+     * Create a tracker for the calling thread.
+     */
+    public AllocationTracker()
+    {
+        threads  = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        threadId = Thread.currentThread().getId();
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        long cheapest = Long.MAX_VALUE;
+        for (int i = 0; i < CALIBRATION_READS; i++) {
+            long before = allocatedBytes();
+            cheapest    = Math.min(cheapest, allocatedBytes() - before);
+        }
+        readCost = cheapest;
+    }
+
+    /**
+     * @return total bytes allocated by the simulation thread so far.
+     */
+    public long allocatedBytes()
+    {
+        return threads.getThreadAllocatedBytes(threadId);
+    }
+
+    @Override
+    public void phaseStarted(FramePhase phase)
+    {
+        phaseStart[phase.ordinal()] = allocatedBytes();
+    }
+
+    @Override
+    public void phaseEnded(FramePhase phase)
+    {
+        int index         = phase.ordinal();
+        long bytes        = allocatedBytes() - phaseStart[index] - readCost;
+        tickBytes[index] += Math.max(0, bytes);
+    }
+
+    /**
+     * Close the current step, folding its samples into the per-phase maximums and totals.
+     */
+    public void endTick()
+    {
+        for (int i = 0; i < PHASES.length; i++) {
+            maxBytes[i]    = Math.max(maxBytes[i], tickBytes[i]);
+            totalBytes[i] += tickBytes[i];
+            tickBytes[i]   = 0;
+        }
+        ticks++;
+    }
+
+    /**
+     * Forget every sample taken so far, e.g. once a warm-up period is over.
+     */
+    public void reset()
+    {
+        for (int i = 0; i < PHASES.length; i++) {
+            tickBytes[i]  = 0;
+            maxBytes[i]   = 0;
+            totalBytes[i] = 0;
+        }
+        ticks = 0;
+    }
+
+    /**
+     * @return most bytes a phase allocated in a single step.
+     */
+    public long getMaxBytes(FramePhase phase)
+    {
+        return maxBytes[phase.ordinal()];
+    }
+
+    /**
+     * @return average bytes a phase allocated per step.
+     */
+    public double getAverageBytes(FramePhase phase)
+    {
+        return ticks > 0 ? (double) totalBytes[phase.ordinal()] / ticks : 0;
+    }
+
+    /**
+     * @return number of steps measured.
+     */
+    public long getTicks()
+    {
+        return ticks;
+    }
+}
@@ -0,0 +1,45 @@
+package com.stratigos.nullapointershooter.headless;
+
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.stratigos.nullapointershooter.WaveConfiguration;
+
+/**
+ * Runs the game simulation without a display, GPU or audio device, as fast as the CPU allows.
+ *  Usage: HeadlessLauncher [ticks] [--stress] [--record=file | --replay=file] [--threads=n]
+ *  --stress       run the built-in stress scenario instead of the default waves
+ *  --record=file  record the scripted input, with the seed and waves, to replay the run exactly
+ *  --replay=file  replay a recording until it ends, instead of the scripted player
+ *  --threads=n    move aliens and shots on n threads once there are enough of them (default 1)
+ */
+public class HeadlessLauncher {
+	public static void main (String[] arg) {
+		long ticks = -1;
+		WaveConfiguration waveConfig = new WaveConfiguration();
+		String recordFile = null;
+		String replayFile = null;
+		int threads = 1;
+		for (String option : arg) {
+			if (option.equals("--stress")) {
+				waveConfig = WaveConfiguration.stress();
+			} else if (option.startsWith("--record=")) {
+				recordFile = option.substring("--record=".length());
+			} else if (option.startsWith("--replay=")) {
+				replayFile = option.substring("--replay=".length());
+			} else if (option.startsWith("--threads=")) {
+				threads = Integer.parseInt(option.substring("--threads=".length()));
+			} else {
+				ticks = Long.parseLong(option);
+			}
+		}
+		// A replay runs until the recording ends, unless told to stop earlier.
+		if (ticks < 0) {
+			ticks = replayFile != null ? Long.MAX_VALUE : HeadlessSimulation.DEFAULT_TICKS;
+		}
+
+		// Render as often as possible, instead of sleeping to hit a frame rate.
+		HeadlessApplicationConfiguration config = new HeadlessApplicationConfiguration();
+		config.renderInterval = 0;
+		new HeadlessApplication(new HeadlessSimulation(ticks, waveConfig, recordFile, replayFile, threads), config);
+	}
+}
@@ -0,0 +1,251 @@
+package com.stratigos.nullapointershooter.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.stratigos.nullapointershooter.GameClock;
+import com.stratigos.nullapointershooter.GameWorld;
+import com.stratigos.nullapointershooter.InputRecorder;
+import com.stratigos.nullapointershooter.InputReplay;
+import com.stratigos.nullapointershooter.ParallelUpdater;
+import com.stratigos.nullapointershooter.WaveConfiguration;
+
+/**
+ * Drives a GameWorld with a scripted player, with no SpriteBatch, Texture or Sound playback. The headless backend
+ *  stands in for Gdx.graphics and Gdx.audio, and every render() call simulates a batch of fixed steps back to back.
+ *  Throughput is logged in ticks (simulation steps) per second, along with the bytes allocated per tick.
+ *
+ * The scripted input may be recorded, or the input of a recording replayed instead, at full speed until the recording
+ *  ends. The final state is logged with the seed, so a recording and its replay can be compared.
+ */
+public class HeadlessSimulation extends ApplicationAdapter
+{
+    /**
+     * Number of simulation steps to run if none is given.
+     */
+    public static final long DEFAULT_TICKS = 1000000;
+
+    /**
+     * Tag for log output.
+     */
+    private static final String TAG = "Headless";
+
+    /**
+     * Number of steps simulated per render() call, so the backend's loop overhead is spread over many steps.
+     */
+    private static final int TICKS_PER_RENDER = 1000;
+
+    /**
+     * Interval between progress reports, in nanoseconds.
+     */
+    private static final long REPORT_INTERVAL = 1000000000L;
+
+    /**
+     * Number of steps to simulate before exiting.
+     */
+    private final long totalTicks;
+
+    /**
+     * Tunables of the alien waves.
+     */
+    private final WaveConfiguration waveConfig;
+
+    /**
+     * Local file to record the scripted input to, or null.
+     */
+    private final String recordFile;
+
+    /**
+     * Local file to replay input from instead of the scripted player, or null.
+     */
+    private final String replayFile;
+
+    /**
+     * Number of threads to move aliens and shots on.
+     */
+    private final int threads;
+
+    /**
+     * Threads aliens and shots are moved on. Null when running on one thread.
+     */
+    private ParallelUpdater updater;
+
+    /**
+     * Writes the input of every step. Null unless recording.
+     */
+    private InputRecorder recorder;
+
+    /**
+     * Source of the input of every step. Null unless replaying.
+     */
+    private InputReplay replay;
+
+    /**
+     * The simulation being driven.
+     */
+    private GameWorld world;
+
+    /**
+     * Number of steps simulated so far.
+     */
+    private long ticks = 0;
+
+    /**
+     * Has the final report been logged.
+     */
+    private boolean finished = false;
+
+    /**
+     * Number of times the player's ship was hit.
+     */
+    private int gamesOver = 0;
+
+    /**
+     * Time the simulation started, in nanoseconds.
+     */
+    private long startTime;
+
+    /**
+     * Time and step count of the last progress report.
+     */
+    private long lastReportTime;
+    private long lastReportTicks;
+
+    /**
+     * Measures memory allocated by the simulation thread.
+     */
+    private AllocationTracker allocationTracker;
+
+    /**
+     * Bytes allocated by the simulation thread when the simulation started.
+     */
+    private long startBytes;
+
+    /**
+     * @param totalTicks Number of steps to simulate before exiting.
+     * @param waveConfig Tunables of the alien waves.
+     */
+    public HeadlessSimulation(long totalTicks, WaveConfiguration waveConfig)
+    {
+        this(totalTicks, waveConfig, null, null, 1);
+    }
+
+    /**
+     * @param totalTicks Maximum number of steps to simulate before exiting.
+     * @param waveConfig Tunables of the alien waves. Ignored when replaying, which uses the recorded ones.
+     * @param recordFile Local file to record the scripted input to, or null.
+     * @param replayFile Local file to replay input from instead of the scripted player, or null.
+     * @param threads Number of threads to move aliens and shots on. The outcome is the same for any number.
+     */
+    public HeadlessSimulation(long totalTicks, WaveConfiguration waveConfig, String recordFile, String replayFile,
+                              int threads)
+    {
+        this.totalTicks = totalTicks;
+        this.waveConfig = waveConfig;
+        this.recordFile = recordFile;
+        this.replayFile = replayFile;
+        this.threads    = threads;
+    }
+
+    @Override
+    public void create()
+    {
+        if (replayFile != null) {
+            replay = new InputReplay(Gdx.files.local(replayFile));
+            world  = HeadlessWorlds.createWorld(replay.getWaves(), replay.getSeed());
+        } else {
+            world  = HeadlessWorlds.createWorld(waveConfig, MathUtils.random.nextLong());
+        }
+        if (recordFile != null) {
+            recorder = new InputRecorder(Gdx.files.local(recordFile), world.getSeed(), world.getWaveConfig());
+        }
+        if (threads > 1) {
+            updater = new ParallelUpdater(threads, ParallelUpdater.DEFAULT_THRESHOLD);
+            world.setParallelUpdater(updater);
+        }
+        allocationTracker = new AllocationTracker();
+
+        startTime      = TimeUtils.nanoTime();
+        lastReportTime = startTime;
+        startBytes     = allocationTracker.allocatedBytes();
+    }
+
+    @Override
+    public void render()
+    {
+        // The backend may render once more before exit() takes effect.
+        if (finished) {
+            return;
+        }
+
+        for (int i = 0; i < TICKS_PER_RENDER && ticks < totalTicks; i++) {
+            boolean wasGameOver = world.isGameOver();
+
+            if (replay != null) {
+                if (!replay.hasNext()) {
+                    break;
+                }
+                replay.apply(world);
+            } else {
+                HeadlessWorlds.playScripted(world);
+            }
+            if (recorder != null) {
+                recorder.record(world.isTouched(), world.getTouchX());
+            }
+            world.update(GameClock.TIME_STEP);
+            ticks++;
+
+            if (!wasGameOver && world.isGameOver()) {
+                gamesOver++;
+            }
+        }
+
+        long now = TimeUtils.nanoTime();
+        if (now - lastReportTime >= REPORT_INTERVAL) {
+            Gdx.app.log(TAG, ticks + " ticks, " + ticksPerSecond(ticks - lastReportTicks, now - lastReportTime)
+                + " ticks/s, " + world.getShotManager().getPlayerShots().size() + " player shots, "
+                + world.getShotManager().getEnemyShots().size() + " alien shots, "
+                + world.getEnemyWaves().getLiveEnemies() + " live aliens in wave " + world.getEnemyWaves().getWave());
+            lastReportTime  = now;
+            lastReportTicks = ticks;
+        }
+
+        if (ticks >= totalTicks || (replay != null && !replay.hasNext())) {
+            finished = true;
+            Gdx.app.log(TAG, "Simulated " + ticks + " ticks (" + ((long) (ticks * GameClock.TIME_STEP)) + "s of game time) in "
+                + ((now - startTime) / 1000000L) + "ms: " + ticksPerSecond(ticks, now - startTime) + " ticks/s, "
+                + gamesOver + " player deaths, "
+                + ((allocationTracker.allocatedBytes() - startBytes) / Math.max(ticks, 1)) + " bytes allocated per tick");
+            Gdx.app.log(TAG, "Final state of seed " + world.getSeed() + ": player at " + world.getPlayer().getX() + ", "
+                + world.getShotManager().getPlayerShots().size() + " player shots, "
+                + world.getShotManager().getEnemyShots().size() + " alien shots, "
+                + world.getEnemyWaves().getLiveEnemies() + " live aliens in wave " + world.getEnemyWaves().getWave());
+            Gdx.app.log(TAG, world.getEnemyWaves().getScheduler().getDecisions() + " alien AI decisions, "
+                + world.getEnemyWaves().getScheduler().getDeferred() + " deferred for lack of budget");
+            Gdx.app.exit();
+        }
+    }
+
+    @Override
+    public void dispose()
+    {
+        if (recorder != null) {
+            recorder.close();
+        }
+        if (replay != null) {
+            replay.close();
+        }
+        if (updater != null) {
+            updater.dispose();
+        }
+    }
+
+    /**
+     * @return rate of steps over an interval, rounded to a whole number.
+     */
+    private static long ticksPerSecond(long ticks, long nanos)
+    {
+        return nanos > 0 ? (ticks * 1000000000L) / nanos : 0;
+    }
+}
@@ -0,0 +1,130 @@
+package com.stratigos.nullapointershooter.headless;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.g2d.TextureAtlas.TextureAtlasData;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.math.Rectangle;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.stratigos.nullapointershooter.Enemy;
+import com.stratigos.nullapointershooter.GameWorld;
+import com.stratigos.nullapointershooter.SpriteSheet;
+import com.stratigos.nullapointershooter.SpriteSheetCache;
+import com.stratigos.nullapointershooter.WaveConfiguration;
+
+/**
+ * Helpers to build and drive GameWorlds without a graphics context.
+ */
+final class HeadlessWorlds
+{
+    private HeadlessWorlds()
+    {
+    }
+
+    /**
+     * Create a GameWorld with the default alien waves, whose objects have the dimensions of the real Sprite maps, but
+     *  can't be drawn.
+     * @return a new GameWorld.
+     */
+    static GameWorld createWorld()
+    {
+        return createWorld(new WaveConfiguration());
+    }
+
+    /**
+     * Create a GameWorld with a random seed, whose objects have the dimensions of the real Sprite maps, but can't be
+     *  drawn.
+     * @param waveConfig Tunables of the alien waves.
+     * @return a new GameWorld.
+     */
+    static GameWorld createWorld(WaveConfiguration waveConfig)
+    {
+        return createWorld(waveConfig, MathUtils.random.nextLong());
+    }
+
+    /**
+     * Create a GameWorld whose objects have the dimensions of the real Sprite maps, but can't be drawn.
+     * @param waveConfig Tunables of the alien waves.
+     * @param seed Seed of the world's RNG. Worlds with the same seed, tunables and input play out identically.
+     * @return a new GameWorld.
+     */
+    static GameWorld createWorld(WaveConfiguration waveConfig, long seed)
+    {
+        return createWorld(loadSheets(), waveConfig, seed);
+    }
+
+    /**
+     * Create a GameWorld from SpriteSheets loaded once, to create many worlds without parsing the atlas each time.
+     * @param sheets SpriteSheets returned by loadSheets(). They are never modified, so worlds on different threads
+     *  may share them.
+     * @param waveConfig Tunables of the alien waves.
+     * @param seed Seed of the world's RNG.
+     * @return a new GameWorld.
+     */
+    static GameWorld createWorld(SpriteSheet[] sheets, WaveConfiguration waveConfig, long seed)
+    {
+        return new GameWorld(sheets[0], sheets[1], sheets[2], sheets[3], waveConfig, seed);
+    }
+
+    /**
+     * Read the dimensions of the Sprite maps from the texture atlas.
+     * @return SpriteSheets of the spaceship, the alien ship, the player's shots and the alien shots, which can't be
+     *  drawn.
+     */
+    static SpriteSheet[] loadSheets()
+    {
+        // Only parse the atlas description; its page image is never loaded.
+        FileHandle packFile   = Gdx.files.internal("sprites.atlas");
+        TextureAtlasData data = new TextureAtlasData(packFile, packFile.parent(), false);
+
+        return new SpriteSheet[] {
+            loadSheet(data, "spaceshipspritemap"),
+            loadSheet(data, "alienshipspritemap"),
+            loadSheet(data, "shotspritemap"),
+            loadSheet(data, "alienshotspritemap")
+        };
+    }
+
+    /**
+     * Scripted player: keep the ship under the first live alien and fire constantly. Touching also restarts the game
+     *  after a hit. With no live alien, the ship keeps firing where it is.
+     * @param world World to set the input of, before its next step.
+     */
+    static void playScripted(GameWorld world)
+    {
+        Array<Enemy> enemies = world.getEnemyWaves().getEnemies();
+        for (int i = 0; i < enemies.size; i++) {
+            Enemy enemy = enemies.get(i);
+            if (enemy.isCollidable()) {
+                Rectangle enemyBox = enemy.getBoundingBox();
+                world.setInput(true, enemyBox.x + (enemyBox.width / 2));
+                return;
+            }
+        }
+
+        world.setInput(true, world.getPlayer().getX());
+    }
+
+    /**
+     * Create a SpriteSheet from the dimensions of a Sprite map's atlas region, without uploading it to a GPU.
+     * @param data Parsed description of the texture atlas.
+     * @param name Name of the Sprite map's region.
+     * @return a SpriteSheet which can't be drawn.
+     */
+    private static SpriteSheet loadSheet(TextureAtlasData data, String name)
+    {
+        Array<TextureAtlasData.Region> regions = data.getRegions();
+        for (int i = 0; i < regions.size; i++) {
+            TextureAtlasData.Region region = regions.get(i);
+            if (region.name.equals(name)) {
+                return new SpriteSheet(
+                    region.width / SpriteSheetCache.DEFAULT_COLUMNS,
+                    region.height / SpriteSheetCache.DEFAULT_ROWS
+                );
+            }
+        }
+
+        throw new GdxRuntimeException("Region not found in texture atlas: " + name);
+    }
+}
@@ -0,0 +1,50 @@
+package com.stratigos.nullapointershooter.headless;
+
+/**
+ * Outcome of one game session played by the scripted player in a SimulationFarm.
+ */
+final class SessionResult
+{
+    /**
+     * Seed the session's world was created with, to replay an interesting session on its own.
+     */
+    final long seed;
+
+    /**
+     * Number of steps played before the player was hit, or the session's time limit.
+     */
+    final long ticks;
+
+    /**
+     * Was the player still alive when the time limit was reached.
+     */
+    final boolean survived;
+
+    /**
+     * Number of aliens hit by the player.
+     */
+    final long enemyHits;
+
+    /**
+     * Number of shots fired by the player, and by aliens.
+     */
+    final long playerShotsFired;
+    final long enemyShotsFired;
+
+    /**
+     * Wave the session ended in.
+     */
+    final int wave;
+
+    SessionResult(long seed, long ticks, boolean survived, long enemyHits, long playerShotsFired,
+                  long enemyShotsFired, int wave)
+    {
+        this.seed             = seed;
+        this.ticks            = ticks;
+        this.survived         = survived;
+        this.enemyHits        = enemyHits;
+        this.playerShotsFired = playerShotsFired;
+        this.enemyShotsFired  = enemyShotsFired;
+        this.wave             = wave;
+    }
+}
@@ -0,0 +1,272 @@
+package com.stratigos.nullapointershooter.headless;
+
+import com.badlogic.gdx.ApplicationAdapter;
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.headless.HeadlessApplication;
+import com.badlogic.gdx.backends.headless.HeadlessApplicationConfiguration;
+import com.badlogic.gdx.math.RandomXS128;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.badlogic.gdx.utils.TimeUtils;
+import com.stratigos.nullapointershooter.GameClock;
+import com.stratigos.nullapointershooter.GameWorld;
+import com.stratigos.nullapointershooter.SpriteSheet;
+import com.stratigos.nullapointershooter.WaveConfiguration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Batch runner for balance tuning. Plays many complete game sessions with the scripted player, each in its own
+ *  isolated GameWorld, on a pool of threads, and logs a report: how long the player survived, how many aliens were
+ *  hit and how many shots were fired, and the throughput in sessions per second.
+ *
+ * A session ends when the player is hit, or after a time limit. Session seeds are drawn from one base seed, so a run
+ *  with the same options gives the same report whatever the number of threads. The seed of the shortest session is
+ *  logged, to recreate its world with HeadlessWorlds.createWorld().
+ *  Usage: SimulationFarm [sessions] [--threads=n] [--seconds=s] [--seed=n] [--stress] [--enemy-speed=f]
+ *      [--turn-odds=n] [--fire-rate=f] [--shot-interval=f]
+ *  --threads=n        number of sessions played at once (default: one per core)
+ *  --seconds=s        time limit of a session, in seconds of game time (default 300)
+ *  --seed=n           base seed of the sessions (default: random)
+ *  --stress           start from the stress scenario's waves instead of the default ones
+ *  --enemy-speed=f    speed of the aliens, in pixels per second
+ *  --turn-odds=n      aliens turn around with a chance of one in n every 60th of a second
+ *  --fire-rate=f      average number of times each alien fires per second
+ *  --shot-interval=f  minimum seconds between two shots of the player
+ */
+public class SimulationFarm extends ApplicationAdapter
+{
+    /**
+     * Number of sessions to play if none is given.
+     */
+    public static final int DEFAULT_SESSIONS = 1000;
+
+    /**
+     * Time limit of a session if none is given, in seconds of game time.
+     */
+    public static final float DEFAULT_SECONDS = 300f;
+
+    /**
+     * Tag for log output.
+     */
+    private static final String TAG = "SimulationFarm";
+
+    /**
+     * Number of sessions to play.
+     */
+    private final int sessions;
+
+    /**
+     * Number of sessions played at once.
+     */
+    private final int threads;
+
+    /**
+     * Maximum number of steps in a session.
+     */
+    private final long maxTicks;
+
+    /**
+     * Seed the session seeds are drawn from.
+     */
+    private final long seed;
+
+    /**
+     * Tunables shared by every session. Never modified once the farm starts.
+     */
+    private final WaveConfiguration waveConfig;
+
+    /**
+     * @param sessions Number of sessions to play.
+     * @param threads Number of sessions played at once.
+     * @param seconds Time limit of a session, in seconds of game time.
+     * @param seed Seed the session seeds are drawn from.
+     * @param waveConfig Tunables shared by every session.
+     */
+    public SimulationFarm(int sessions, int threads, float seconds, long seed, WaveConfiguration waveConfig)
+    {
+        this.sessions   = sessions;
+        this.threads    = threads;
+        this.maxTicks   = (long) (seconds / GameClock.TIME_STEP);
+        this.seed       = seed;
+        this.waveConfig = waveConfig;
+    }
+
+    public static void main(String[] arg)
+    {
+        int sessions                 = DEFAULT_SESSIONS;
+        int threads                  = Runtime.getRuntime().availableProcessors();
+        float seconds                = DEFAULT_SECONDS;
+        long seed                    = new RandomXS128().nextLong();
+        WaveConfiguration waveConfig = new WaveConfiguration();
+
+        // Tunables are applied after the scenario, so they may adjust the stress scenario as well.
+        List<String> tunables = new ArrayList<String>();
+        for (String option : arg) {
+            if (option.startsWith("--threads=")) {
+                threads = Integer.parseInt(value(option));
+            } else if (option.startsWith("--seconds=")) {
+                seconds = Float.parseFloat(value(option));
+            } else if (option.startsWith("--seed=")) {
+                seed = Long.parseLong(value(option));
+            } else if (option.equals("--stress")) {
+                waveConfig = WaveConfiguration.stress();
+            } else if (option.startsWith("--")) {
+                tunables.add(option);
+            } else {
+                sessions = Integer.parseInt(option);
+            }
+        }
+        for (String option : tunables) {
+            if (option.startsWith("--enemy-speed=")) {
+                waveConfig.enemySpeed = Float.parseFloat(value(option));
+            } else if (option.startsWith("--turn-odds=")) {
+                waveConfig.directionChangeOdds = Integer.parseInt(value(option));
+            } else if (option.startsWith("--fire-rate=")) {
+                waveConfig.fireRate = Float.parseFloat(value(option));
+            } else if (option.startsWith("--shot-interval=")) {
+                waveConfig.playerShotInterval = Float.parseFloat(value(option));
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + option);
+            }
+        }
+        if (sessions < 1) {
+            throw new IllegalArgumentException("Number of sessions must be at least 1: " + sessions);
+        }
+        if (threads < 1) {
+            throw new IllegalArgumentException("Number of threads must be at least 1: " + threads);
+        }
+
+        new HeadlessApplication(new SimulationFarm(sessions, threads, seconds, seed, waveConfig),
+            new HeadlessApplicationConfiguration());
+    }
+
+    @Override
+    public void create()
+    {
+        // Parse the atlas once; the SpriteSheets are immutable, so every world shares them.
+        final SpriteSheet[] sheets = HeadlessWorlds.loadSheets();
+
+        RandomXS128 seeds = new RandomXS128(seed);
+        List<Callable<SessionResult>> tasks = new ArrayList<Callable<SessionResult>>(sessions);
+        for (int i = 0; i < sessions; i++) {
+            final long sessionSeed = seeds.nextLong();
+            tasks.add(new Callable<SessionResult>()
+            {
+                @Override
+                public SessionResult call()
+                {
+                    return play(HeadlessWorlds.createWorld(sheets, waveConfig, sessionSeed), sessionSeed);
+                }
+            });
+        }
+
+        Gdx.app.log(TAG, "Playing " + sessions + " sessions of up to " + (long) (maxTicks * GameClock.TIME_STEP)
+            + "s on " + threads + " threads, seed " + seed);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        SessionResult[] results  = new SessionResult[sessions];
+        long startTime           = TimeUtils.nanoTime();
+        try {
+            List<Future<SessionResult>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < sessions; i++) {
+                results[i] = futures.get(i).get();
+            }
+        } catch (InterruptedException e) {
+            throw new GdxRuntimeException("Interrupted while playing sessions", e);
+        } catch (ExecutionException e) {
+            throw new GdxRuntimeException("Couldn't play session", e.getCause());
+        } finally {
+            executor.shutdown();
+        }
+
+        report(results, TimeUtils.nanoTime() - startTime);
+        Gdx.app.exit();
+    }
+
+    /**
+     * Play a session with the scripted player until it is hit, or the time limit is reached.
+     * @param world New world to play in.
+     * @param sessionSeed Seed the world was created with.
+     * @return the outcome of the session.
+     */
+    private SessionResult play(GameWorld world, long sessionSeed)
+    {
+        long ticks = 0;
+        while (ticks < maxTicks && !world.isGameOver()) {
+            HeadlessWorlds.playScripted(world);
+            world.update(GameClock.TIME_STEP);
+            ticks++;
+        }
+
+        return new SessionResult(sessionSeed, ticks, !world.isGameOver(),
+            world.getCollisionManager().getEnemyHits(), world.getShotManager().getPlayerShotsFired(),
+            world.getShotManager().getEnemyShotsFired(), world.getEnemyWaves().getWave());
+    }
+
+    /**
+     * Log the aggregated outcome of every session, and the throughput.
+     */
+    private void report(SessionResult[] results, long nanos)
+    {
+        float[] survival       = new float[results.length];
+        long totalTicks        = 0;
+        int survivors          = 0;
+        long enemyHits         = 0;
+        long playerShotsFired  = 0;
+        long enemyShotsFired   = 0;
+        long waves             = 0;
+        SessionResult shortest = results[0];
+        for (int i = 0; i < results.length; i++) {
+            SessionResult result = results[i];
+            survival[i]          = result.ticks * GameClock.TIME_STEP;
+            totalTicks          += result.ticks;
+            survivors           += result.survived ? 1 : 0;
+            enemyHits           += result.enemyHits;
+            playerShotsFired    += result.playerShotsFired;
+            enemyShotsFired     += result.enemyShotsFired;
+            waves               += result.wave;
+            if (result.ticks < shortest.ticks) {
+                shortest = result;
+            }
+        }
+        Arrays.sort(survival);
+
+        int count      = results.length;
+        float seconds  = nanos / 1000000000f;
+        Gdx.app.log(TAG, String.format("%d sessions in %.2fs: %.1f sessions/s, %.0f ticks/s", count, seconds,
+            count / seconds, totalTicks / seconds));
+        Gdx.app.log(TAG, String.format("Survival: mean %.1fs, p10 %.1fs, median %.1fs, p90 %.1fs, %d of %d survived",
+            (totalTicks * GameClock.TIME_STEP) / count, percentile(survival, 0.1f), percentile(survival, 0.5f),
+            percentile(survival, 0.9f), survivors, count));
+        Gdx.app.log(TAG, String.format("Per session: %.1f aliens hit, %.1f player shots (%.1f%% hit), "
+            + "%.1f alien shots, wave %.1f", (float) enemyHits / count, (float) playerShotsFired / count,
+            playerShotsFired > 0 ? (100f * enemyHits) / playerShotsFired : 0f, (float) enemyShotsFired / count,
+            (float) waves / count));
+        Gdx.app.log(TAG, String.format("Shortest session: %.1fs, seed %d", shortest.ticks * GameClock.TIME_STEP,
+            shortest.seed));
+    }
+
+    /**
+     * @return value, in sorted values, which this fraction of the values does not exceed.
+     */
+    private static float percentile(float[] sorted, float percentile)
+    {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * @return the value of a "--name=value" option.
+     */
+    private static String value(String option)
+    {
+        return option.substring(option.indexOf('=') + 1);
+    }
+}